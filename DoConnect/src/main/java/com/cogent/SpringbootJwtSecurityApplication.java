@@ -12,16 +12,17 @@ import javax.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import com.cogent.entity.Answer;
-import com.cogent.entity.AnswerVote;
 import com.cogent.entity.Chat;
 import com.cogent.entity.ERole;
 import com.cogent.entity.Message;
 import com.cogent.entity.Question;
 import com.cogent.entity.QuestionDTO;
-import com.cogent.entity.QuestionVote;
 import com.cogent.entity.Role;
 import com.cogent.entity.User;
 import com.cogent.repository.AnswerRepository;
@@ -34,6 +35,7 @@ import com.cogent.service.QuestionService;
 import com.cogent.util.Time;
 
 @SpringBootApplication
+@EnableScheduling
 public class SpringbootJwtSecurityApplication {
 	
 	 @Autowired
@@ -84,56 +86,45 @@ public class SpringbootJwtSecurityApplication {
 	    @PostConstruct
 	    public void initQA() {
 	        List<Question> questions = Stream.of(
-	                new Question(null, 0, new HashSet<QuestionVote>(),"SomeDescription", "SomeImage", "SomeDateTime", "open", "someTopic",
+	                new Question(null, 0, "SomeDescription", "SomeImage", "SomeDateTime", "open", "someTopic",
 	                		"someTitle", new ArrayList<Answer>(), "Someone", null),
 	                
-	                new Question(null, 0, new HashSet<QuestionVote>(), "Hello How are you?", "https://img.freepik.com/premium-vector/hello-word-memphis-background_136321-401.jpg",
+	                new Question(null, 0, "Hello How are you?", "https://img.freepik.com/premium-vector/hello-word-memphis-background_136321-401.jpg",
 	                		Time.getTimeNow(), "open", "hello",
 	                		"Urgent!", new ArrayList<Answer>(), "bearuser", null),
 	                
-	                new Question(null, 0, new HashSet<QuestionVote>(), "White rice or brown?", "https://www.acouplecooks.com/wp-content/uploads/2022/02/How-to-Cook-Rice-002s.jpg",
+	                new Question(null, 0, "White rice or brown?", "https://www.acouplecooks.com/wp-content/uploads/2022/02/How-to-Cook-Rice-002s.jpg",
 	                		Time.getTimeNow(), "open", "food",
 	                		"Only one right answer", new ArrayList<Answer>(), "penguinuser", null),
 	                
-	                new Question(null, 0, new HashSet<QuestionVote>(), "Chicken or Pork?", "https://cdn.britannica.com/07/183407-050-C35648B5/Chicken.jpg",
+	                new Question(null, 0, "Chicken or Pork?", "https://cdn.britannica.com/07/183407-050-C35648B5/Chicken.jpg",
 	                		Time.getTimeNow(), "closed", "food",
 	                		"Huh?", new ArrayList<Answer>(), "doguser", "birduser"),
 	                
-	                new Question(null, 0, new HashSet<QuestionVote>(), "Why no rice?", "https://images.squarespace-cdn.com/content/v1/54f7b161e4b05ad03a600b41/1538572872623-THWMDYT74XRDDU4S3FPP/What-Is-Your-Why.jpg?format=1000w",
+	                new Question(null, 0, "Why no rice?", "https://images.squarespace-cdn.com/content/v1/54f7b161e4b05ad03a600b41/1538572872623-THWMDYT74XRDDU4S3FPP/What-Is-Your-Why.jpg?format=1000w",
 	                		Time.getTimeNow(), "closed", "food",
 	                		"Important", new ArrayList<Answer>(), "birduser", "catuser")
 	        ).collect(Collectors.toList());
 	        questionRepository.saveAll(questions);
 	        
-	        	 	QuestionDTO dto = new QuestionDTO();
-	        	 	dto.setVote(1);
-	        	 	dto.setUserVoter("bearuser");
-	        	 	questionService.vote(dto, 2l);
-	        	 	
-	        	 	
-	        	 	QuestionDTO dto2 = new QuestionDTO();
-	        	 	dto2.setVote(1);	        	 
-	        	 	dto2.setUserVoter("catuser");
-	        	 	questionService.vote(dto2, 2l);
-	        	 	
 	        List<Answer> answers = Stream.of(
-	    			//id, voteTally, votes, descriptionAnswer, imgSource, approved, dateTime, question, createdBy, ApprovedBy
-	    			new Answer (null, 0, new ArrayList<AnswerVote>(), "someDescription", "someImage", false, 
+	    			//id, voteTally, descriptionAnswer, imgSource, approved, dateTime, question, createdBy, ApprovedBy
+	    			new Answer (null, 0, "someDescription", "someImage", false, 
 	    					Time.getTimeNow(), questionRepository.findById(2l).get(), "someone", "someoneElse"), 
 	    			
-	    			new Answer (null, 0, new ArrayList<AnswerVote>(), "I am Fine", "https://images.squarespace-cdn.com/content/v1/604a9531f77ff4178d4a7cdc/6bbe6ac6-b3a4-40b4-b8ab-a8d12de29465/im-fine-stkd-rev-gold.jpg",
+	    			new Answer (null, 0, "I am Fine", "https://images.squarespace-cdn.com/content/v1/604a9531f77ff4178d4a7cdc/6bbe6ac6-b3a4-40b4-b8ab-a8d12de29465/im-fine-stkd-rev-gold.jpg",
 	    					true, Time.getTimeNow(), questionRepository.findById(2l).get(), "birduser", "catuser"),
 	    			
-	    			new Answer (null, 0, new ArrayList<AnswerVote>(), "How About You?", null, true, 
+	    			new Answer (null, 0, "How About You?", null, true, 
 	    					Time.getTimeNow(), questionRepository.findById(2l).get(), "birduser", "catuser"),
 	    			
-	    			new Answer (null, 0, new ArrayList<AnswerVote>(), "I am not okay", "https://encrypted-tbn0.gstatic.com/images?q=tbn:ANd9GcQmR80fYZfKffpeV_ZiuIMGzu_nQZcCHwGjAh_wFCpJgA&usqp=CAU&ec=48600112",
+	    			new Answer (null, 0, "I am not okay", "https://encrypted-tbn0.gstatic.com/images?q=tbn:ANd9GcQmR80fYZfKffpeV_ZiuIMGzu_nQZcCHwGjAh_wFCpJgA&usqp=CAU&ec=48600112",
 	    					true, Time.getTimeNow(), questionRepository.findById(2l).get(), "doguser", "birduser"),
 	    			
-	    			new Answer (null, 0, new ArrayList<AnswerVote>(), "Why?", null, false, 
+	    			new Answer (null, 0, "Why?", null, false, 
 	    					Time.getTimeNow(), questionRepository.findById(2l).get(), "doguser", null),
 	    			
-	    			new Answer (null, 0, new ArrayList<AnswerVote>(), "White Rice", null, true, 
+	    			new Answer (null, 0, "White Rice", null, true, 
 	    					Time.getTimeNow(), questionRepository.findById(3l).get(), "birduser", "catuser")
 	    			
 	    			).collect(Collectors.toList());
@@ -143,22 +134,40 @@ public class SpringbootJwtSecurityApplication {
 	    @PostConstruct
 	    public void initChat() {
 	    	List<Chat> chats = Stream.of(
-	    			new Chat(null, "birduser", "doguser", new ArrayList<Message>()),
-	    			new Chat(null, "birduser", "catuser", new ArrayList<Message>()),
-	    			new Chat(null, "bearuser", "birduser", new ArrayList<Message>()),
-	    			new Chat(null, "birduser", "penguinuser", new ArrayList<Message>())
+	    			new Chat(null, "birduser", "doguser", null, 0, new ArrayList<Message>()),
+	    			new Chat(null, "birduser", "catuser", null, 1, new ArrayList<Message>()),
+	    			new Chat(null, "bearuser", "birduser", null, 4, new ArrayList<Message>()),
+	    			new Chat(null, "birduser", "penguinuser", null, 0, new ArrayList<Message>())
 	    			).collect(Collectors.toList());
 	    	chatRepository.saveAll(chats);
 	    	
 	    	List<Message> messages = Stream.of(
-	    			new Message(null, Time.getTimeNow(), "Hello what are you doing?", "bearuser", chatRepository.findById(3l).get()),
-	    			new Message(null, Time.getTimeNow(), "I am eating", "birduser", chatRepository.findById(3l).get()),
-	    			new Message(null, Time.getTimeNow(), "Eating What?", "bearuser", chatRepository.findById(3l).get()),
-	    			new Message(null, Time.getTimeNow(), "Nuts", "birduser", chatRepository.findById(3l).get()),
-	    			new Message(null, Time.getTimeNow(), "Chirp Chirp", "birduser", chatRepository.findById(2l).get())
+	    			new Message(null, 1l, Time.getTimeNow(), "Hello what are you doing?", "bearuser", chatRepository.findById(3l).get()),
+	    			new Message(null, 2l, Time.getTimeNow(), "I am eating", "birduser", chatRepository.findById(3l).get()),
+	    			new Message(null, 3l, Time.getTimeNow(), "Eating What?", "bearuser", chatRepository.findById(3l).get()),
+	    			new Message(null, 4l, Time.getTimeNow(), "Nuts", "birduser", chatRepository.findById(3l).get()),
+	    			new Message(null, 1l, Time.getTimeNow(), "Chirp Chirp", "birduser", chatRepository.findById(2l).get())
 	    			).collect(Collectors.toList());
 	    	messageRepository.saveAll(messages);
 	    }
+
+	    /**
+	     * Votes resolve the voter's id from the users table, so they are
+	     * cast once every @PostConstruct seeder has run, whatever its order
+	     */
+	    @EventListener(ApplicationReadyEvent.class)
+	    public void initVotes() {
+	        	 	QuestionDTO dto = new QuestionDTO();
+	        	 	dto.setVote(1);
+	        	 	dto.setUserVoter("bearuser");
+	        	 	questionService.vote(dto, 2l);
+	        	 	
+	        	 	
+	        	 	QuestionDTO dto2 = new QuestionDTO();
+	        	 	dto2.setVote(1);	        	 
+	        	 	dto2.setUserVoter("catuser");
+	        	 	questionService.vote(dto2, 2l);
+	    }
 	    	
 
 	public static void main(String[] args) {
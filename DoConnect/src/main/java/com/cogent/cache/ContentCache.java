@@ -0,0 +1,304 @@
+package com.cogent.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.cogent.entity.Answer;
+import com.cogent.entity.CacheStats;
+import com.cogent.entity.Question;
+import com.cogent.util.LruCache;
+import com.cogent.vote.VoteAggregator;
+import com.cogent.vote.VoteTarget;
+
+/**
+ * Read-through caches of Questions, Answers and the
+ * Answers of each Question, shared by QuestionService
+ * and AnswerService
+ *
+ * Services report every write and the caches drop or patch
+ * exactly the entries the write touched. Votes are patched
+ * into the cached entities rather than dropped, since a vote
+ * reaches the database only on the next VoteAggregator flush
+ * and a reload right away would miss it. For the same reason a
+ * load adds the tally changes the VoteAggregator has not written
+ * yet to the tallies it read, in a read no flush overlaps.
+ *
+ * The caches hold detached copies of the loaded entities that
+ * are never changed once stored, a patch stores a changed copy
+ * in place of the old one, so callers must treat what they get
+ * as read only. To find the entries a write touches without
+ * walking the caches, the ids of the cached Answers are indexed
+ * by Question and the Question of each Answer in a cached list
+ * is indexed by Answer, both kept up to date as entries are
+ * stored and removed.
+ *
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@Component
+public class ContentCache {
+	@Autowired
+	private VoteAggregator voteAggregator;
+
+	@Value("${doConnect.app.cache.maxQuestions:1000}")
+	private int maxQuestions;
+
+	@Value("${doConnect.app.cache.maxAnswers:5000}")
+	private int maxAnswers;
+
+	@Value("${doConnect.app.cache.ttlMs:60000}")
+	private long ttlMillis;
+
+	/** Question by id */
+	private LruCache<Long, Question> questions;
+
+	/** Answer by id */
+	private LruCache<Long, Answer> answers;
+
+	/** Answers of a Question by Question id */
+	private LruCache<Long, List<Answer>> questionAnswers;
+
+	/** Ids of the Answers cached in answers by the id of their Question */
+	private final Map<Long, Set<Long>> answerIds = new ConcurrentHashMap<>();
+
+	/** Question id of every Answer cached in questionAnswers by Answer id */
+	private final Map<Long, Long> listedQuestion = new ConcurrentHashMap<>();
+
+	@PostConstruct
+	public void init() {
+		questions = new LruCache<>("questions", maxQuestions, ttlMillis);
+		answers = new LruCache<>("answers", maxAnswers, ttlMillis, this::answerStored, this::answerRemoved);
+		questionAnswers = new LruCache<>("questionAnswers", maxQuestions, ttlMillis, this::listStored, this::listRemoved);
+	}
+
+	/**
+	 * @param id the id of the Question
+	 * @param loader loads the Question on a miss, returns null if there is none
+	 * @return the Question or null if there is none
+	 * @since 1.0
+	 */
+	public Question getQuestion(Long id, Function<Long, Question> loader) {
+		return questions.get(id, key -> voteAggregator.readSettled(() -> settled(copy(loader.apply(key)))));
+	}
+
+	/**
+	 * @param id the id of the Answer
+	 * @param loader loads the Answer on a miss, returns null if there is none
+	 * @return the Answer or null if there is none
+	 * @since 1.0
+	 */
+	public Answer getAnswer(Long id, Function<Long, Answer> loader) {
+		return answers.get(id, key -> voteAggregator.readSettled(() -> settled(copy(loader.apply(key)))));
+	}
+
+	/**
+	 * @param questionId the id of the Question
+	 * @param loader loads the Answers on a miss
+	 * @return the Answers of the Question
+	 * @since 1.0
+	 */
+	public List<Answer> getAnswersByQuestion(Long questionId, Function<Long, List<Answer>> loader) {
+		return questionAnswers.get(questionId, key -> voteAggregator.readSettled(() -> settled(copy(loader.apply(key)))));
+	}
+
+	/**
+	 * Function to drop a Question that was updated or deleted,
+	 * with every Answer that embeds it
+	 *
+	 * @param id the id of the Question
+	 * @since 1.0
+	 */
+	public void questionChanged(Long id) {
+		questions.invalidate(id);
+		questionAnswers.invalidate(id);
+		for (Long answerId : indexedAnswers(id)) {
+			answers.invalidate(answerId);
+		}
+	}
+
+	/**
+	 * Function to patch a vote into every cached copy of a Question
+	 *
+	 * @param id the id of the Question
+	 * @param delta the change to its voteTally
+	 * @since 1.0
+	 */
+	public void questionVoted(Long id, int delta) {
+		questions.patch(id, question -> voted(question, delta));
+		questionAnswers.patch(id, list -> {
+			Question question = list.isEmpty() ? null : voted(list.get(0).getQuestion(), delta);
+			List<Answer> patched = new ArrayList<>(list.size());
+			for (Answer answer : list) {
+				patched.add(withQuestion(answer, question));
+			}
+			return Collections.unmodifiableList(patched);
+		});
+		for (Long answerId : indexedAnswers(id)) {
+			answers.patch(answerId, answer -> withQuestion(answer, voted(answer.getQuestion(), delta)));
+		}
+	}
+
+	/**
+	 * Function to drop an Answer that was added, updated or deleted
+	 *
+	 * @param id the id of the Answer, null for a new Answer
+	 * @param questionId the id of its Question
+	 * @since 1.0
+	 */
+	public void answerChanged(Long id, Long questionId) {
+		if (id != null) {
+			answers.invalidate(id);
+		}
+		questionAnswers.invalidate(questionId);
+	}
+
+	/**
+	 * Function to patch a vote into every cached copy of an Answer
+	 *
+	 * @param id the id of the Answer
+	 * @param delta the change to its voteTally
+	 * @since 1.0
+	 */
+	public void answerVoted(Long id, int delta) {
+		answers.patch(id, answer -> voted(answer, delta));
+		Long questionId = listedQuestion.get(id);
+		if (questionId != null) {
+			questionAnswers.patch(questionId, list -> {
+				List<Answer> patched = new ArrayList<>(list);
+				patched.replaceAll(answer -> id.equals(answer.getId()) ? voted(answer, delta) : answer);
+				return Collections.unmodifiableList(patched);
+			});
+		}
+	}
+
+	/**
+	 * @return the counters of every cache
+	 * @since 1.0
+	 */
+	public List<CacheStats> stats() {
+		return Arrays.asList(questions.stats(), answers.stats(), questionAnswers.stats());
+	}
+
+	private Long[] indexedAnswers(Long questionId) {
+		Set<Long> ids = answerIds.get(questionId);
+		return ids == null ? new Long[0] : ids.toArray(new Long[0]);
+	}
+
+	private void answerStored(Long id, Answer answer) {
+		if (answer.getQuestion() != null) {
+			answerIds.computeIfAbsent(answer.getQuestion().getId(), key -> ConcurrentHashMap.newKeySet()).add(id);
+		}
+	}
+
+	private void answerRemoved(Long id, Answer answer) {
+		if (answer.getQuestion() != null) {
+			answerIds.computeIfPresent(answer.getQuestion().getId(), (key, ids) -> {
+				ids.remove(id);
+				return ids.isEmpty() ? null : ids;
+			});
+		}
+	}
+
+	private void listStored(Long questionId, List<Answer> list) {
+		for (Answer answer : list) {
+			listedQuestion.put(answer.getId(), questionId);
+		}
+	}
+
+	private void listRemoved(Long questionId, List<Answer> list) {
+		for (Answer answer : list) {
+			listedQuestion.remove(answer.getId(), questionId);
+		}
+	}
+
+	/** Adds the unflushed tally change to a freshly loaded copy */
+	private Question settled(Question question) {
+		if (question != null) {
+			question.setVoteTally(question.getVoteTally() 
+					+ voteAggregator.unflushedTally(VoteTarget.QUESTION, question.getId()));
+		}
+		return question;
+	}
+
+	/** Adds the unflushed tally changes to a freshly loaded copy and its Question */
+	private Answer settled(Answer answer) {
+		if (answer != null) {
+			answer.setVoteTally(answer.getVoteTally() 
+					+ voteAggregator.unflushedTally(VoteTarget.ANSWER, answer.getId()));
+			settled(answer.getQuestion());
+		}
+		return answer;
+	}
+
+	/** Adds the unflushed tally changes to freshly loaded copies sharing one Question */
+	private List<Answer> settled(List<Answer> list) {
+		if (list != null && !list.isEmpty()) {
+			settled(list.get(0).getQuestion());
+			for (Answer answer : list) {
+				answer.setVoteTally(answer.getVoteTally() 
+						+ voteAggregator.unflushedTally(VoteTarget.ANSWER, answer.getId()));
+			}
+		}
+		return list;
+	}
+
+	private static Question voted(Question question, int delta) {
+		if (question == null) {
+			return null;
+		}
+		Question patched = copy(question);
+		patched.setVoteTally(question.getVoteTally() + delta);
+		return patched;
+	}
+
+	private static Answer voted(Answer answer, int delta) {
+		Answer patched = withQuestion(answer, answer.getQuestion());
+		patched.setVoteTally(answer.getVoteTally() + delta);
+		return patched;
+	}
+
+	private static Answer withQuestion(Answer answer, Question question) {
+		return new Answer(answer.getId(), answer.getVoteTally(), answer.getDescriptionAnswer(), answer.getImgSrc(),
+				answer.isApproved(), answer.getDatetime(), question, answer.getCreatedBy(), answer.getApprovedBy());
+	}
+
+	/** Detached copy of a loaded Question, without its Answers */
+	private static Question copy(Question question) {
+		if (question == null) {
+			return null;
+		}
+		return new Question(question.getId(), question.getVoteTally(), question.getDescriptionQuestion(),
+				question.getImageSrc(), question.getDatetime(), question.getStatus(), question.getTopic(),
+				question.getTitle(), null, question.getCreatedBy(), question.getApprovedBy());
+	}
+
+	/** Detached copy of a loaded Answer, with a copy of its Question */
+	private static Answer copy(Answer answer) {
+		return answer == null ? null : withQuestion(answer, copy(answer.getQuestion()));
+	}
+
+	/** Detached copies of loaded Answers, sharing one copy of their Question */
+	private static List<Answer> copy(List<Answer> list) {
+		if (list == null) {
+			return null;
+		}
+		Question question = list.isEmpty() ? null : copy(list.get(0).getQuestion());
+		List<Answer> copies = new ArrayList<>(list.size());
+		for (Answer answer : list) {
+			copies.add(withQuestion(answer, question));
+		}
+		return Collections.unmodifiableList(copies);
+	}
+}
@@ -3,8 +3,10 @@ package com.cogent.controller;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,7 +17,6 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -29,9 +30,9 @@ import com.cogent.login.LoginRequest;
 import com.cogent.login.SignupRequest;
 import com.cogent.login.UserInfoResponse;
 import com.cogent.login.MessageResponse;
-import com.cogent.repository.RoleRepository;
-import com.cogent.repository.UserRepository;
 import com.cogent.security.jwt.JwtUtils;
+import com.cogent.security.service.LoginGuard;
+import com.cogent.security.service.SignupService;
 import com.cogent.security.service.UserDetailsImpl;
 
 //@CrossOrigin(origins = "*", maxAge = 3600)
@@ -43,22 +44,25 @@ public class AuthController {
   AuthenticationManager authenticationManager;
 
   @Autowired
-  UserRepository userRepository;
+  SignupService signupService;
 
   @Autowired
-  RoleRepository roleRepository;
-
-  @Autowired
-  PasswordEncoder encoder;
+  LoginGuard loginGuard;
 
   @Autowired
   JwtUtils jwtUtils;
 
   @PostMapping("/signin")
-  public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
-
-    Authentication authentication = authenticationManager
-        .authenticate(new UsernamePasswordAuthenticationToken(loginRequest.getUserName(), loginRequest.getPassword()));
+  public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+
+    Authentication authentication;
+    loginGuard.acquire(loginRequest.getUserName(), request.getRemoteAddr());
+    try {
+      authentication = authenticationManager
+          .authenticate(new UsernamePasswordAuthenticationToken(loginRequest.getUserName(), loginRequest.getPassword()));
+    } finally {
+      loginGuard.release();
+    }
 
     SecurityContextHolder.getContext().setAuthentication(authentication);
 
@@ -78,59 +82,57 @@ public class AuthController {
   }
 
   @PostMapping("/signup")
-  public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
-    if (userRepository.existsByUserName(signUpRequest.getUserName())) {
-      return ResponseEntity.badRequest().body(new MessageResponse("Error: Username is already taken!"));
+  public CompletableFuture<ResponseEntity<?>> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
+    if (signupService.isUserNameTaken(signUpRequest.getUserName())) {
+      return CompletableFuture.completedFuture(
+          ResponseEntity.badRequest().body(new MessageResponse("Error: Username is already taken!")));
     }
 
-    if (userRepository.existsByEmail(signUpRequest.getEmail())) {
-      return ResponseEntity.badRequest().body(new MessageResponse("Error: Email is already in use!"));
+    if (signupService.isEmailTaken(signUpRequest.getEmail())) {
+      return CompletableFuture.completedFuture(
+          ResponseEntity.badRequest().body(new MessageResponse("Error: Email is already in use!")));
     }
 
     // Create new user's account
     User user = new User(null, signUpRequest.getName(),
     					signUpRequest.getUserName(),
-                         encoder.encode(signUpRequest.getPassword()),  signUpRequest.getEmail(), new HashSet<Role>());
+                         null,  signUpRequest.getEmail(), new HashSet<Role>());
 
     Set<String> strRoles = signUpRequest.getRole();
     Set<Role> roles = new HashSet<>();
 
     if (strRoles == null) {
-      Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-          .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-      roles.add(userRole);
+      roles.add(signupService.getRole(ERole.ROLE_USER));
     } else {
       strRoles.forEach(role -> {
         switch (role) {
         case "admin":
-          Role adminRole = roleRepository.findByName(ERole.ROLE_ADMIN)
-              .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-          roles.add(adminRole);
+          roles.add(signupService.getRole(ERole.ROLE_ADMIN));
 
           break;
         case "mod":
-          Role modRole = roleRepository.findByName(ERole.ROLE_MODERATOR)
-              .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-          roles.add(modRole);
+          roles.add(signupService.getRole(ERole.ROLE_MODERATOR));
 
           break;
         default:
-          Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-              .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-          roles.add(userRole);
+          roles.add(signupService.getRole(ERole.ROLE_USER));
         }
       });
     }
 
     user.setRoles(roles);
-    userRepository.save(user);
     
-    return  ResponseEntity.noContent().build();
+    return signupService.register(user, signUpRequest.getPassword())
+        .thenApply(saved -> ResponseEntity.noContent().build());
  //   return ResponseEntity.ok(new MessageResponse("User registered successfully!"));
   }
 
   @PostMapping("/signout")
-  public ResponseEntity<?> logoutUser() {
+  public ResponseEntity<?> logoutUser(HttpServletRequest request) {
+    String jwt = jwtUtils.getJwtFromCookies(request);
+    if (jwt != null) {
+      jwtUtils.revokeJwtToken(jwt);
+    }
     ResponseCookie cookie = jwtUtils.getCleanJwtCookie();
     return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE, cookie.toString())
         .body(new MessageResponse("You've been signed out!"));
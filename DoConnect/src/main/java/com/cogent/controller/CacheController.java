@@ -0,0 +1,48 @@
+package com.cogent.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.cogent.cache.ContentCache;
+import com.cogent.entity.CacheStats;
+import com.cogent.security.service.UserDetailsServiceImpl;
+
+/**
+ * Controller to report on the in-memory caches
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@CrossOrigin(origins = "http://localhost:4200", maxAge = 3600, allowCredentials="true")
+@RestController
+public class CacheController {
+	@Autowired
+	private ContentCache contentCache;
+	
+	@Autowired
+	private UserDetailsServiceImpl userDetailsService;
+	
+	/**
+	 * Function to GET the hit, miss and eviction
+	 * counters of every cache, for admins only
+	 * 
+	 * @return HTTP Code 200 and a List of CacheStats Objects on success
+	 * 
+	 * @see com.cogent.cache.ContentCache#stats()
+	 * @see com.cogent.security.service.UserDetailsServiceImpl#stats()
+	 * @since 1.0
+	 */
+	@PreAuthorize("hasRole('ADMIN')")
+	@GetMapping(value = {"/admin/caches"})
+	public List<CacheStats> getStats() {
+		List<CacheStats> stats = new ArrayList<>(contentCache.stats());
+		stats.add(userDetailsService.stats());
+		return stats;
+	}
+}
@@ -4,22 +4,36 @@ import java.util.Hashtable;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.cogent.entity.Chat;
+import com.cogent.entity.CursorPage;
+import com.cogent.entity.InboxEntry;
 import com.cogent.entity.Message;
+import com.cogent.entity.MessagePage;
+import com.cogent.realtime.MessageHub;
+import com.cogent.security.service.UserDetailsImpl;
 import com.cogent.service.ChatService;
+import com.cogent.service.InboxService;
 import com.cogent.service.MessageService;
+import com.cogent.service.ReadReceiptService;
+import com.cogent.util.Time;
 
 /**
  * Controller to deal with message-related entities
@@ -35,6 +49,18 @@ public class MessageController {
 	
 	@Autowired
 	private ChatService chatService;
+	
+	@Autowired
+	private MessageHub messageHub;
+	
+	@Autowired
+	private InboxService inboxService;
+	
+	@Autowired
+	private ReadReceiptService readReceiptService;
+	
+	/** Longest a long-poll request may wait */
+	private static final long MAX_WAIT_MS = 60000;
     
 	/**
 	 * Function to GET all messages or filtered messages based 
@@ -67,13 +93,63 @@ public class MessageController {
 	 * 
 	 * @see com.cogent.service.MessageService#getAll()
 	 * @see com.cogent.service.MessageService#getAllByChat(Chat)
+	 * @deprecated use GET /inbox, which pages the chats with their latest message
 	 * @since 1.0
 	 */
+	@Deprecated
 	@GetMapping(value = {"/chatHeaders/{user}"})
 	public List<Chat> getAllHeader(@PathVariable("user") String user) {
 		return chatService.getAllBySingleUser(user);
 	}
 		
+	/**
+	 * Function to GET one page of the signed-in User's inbox,
+	 * each chat with its latest message and unread count,
+	 * the chat with the latest message first
+	 * 
+	 * @param cursor the next cursor of the previous page
+	 * @param limit the page size
+	 * @param principal the signed-in User
+	 * @return HTTP Code 200 and a page of inbox entries on success
+	 * 			HTTP Code 400 if the cursor is not valid
+	 * 
+	 * @see com.cogent.service.InboxService#getInbox(String, String, Integer)
+	 * @see com.cogent.service.ReadReceiptService#overlay(List)
+	 * @since 1.0
+	 */
+	@PreAuthorize("hasRole('USER') or hasRole('MODERATOR') or hasRole('ADMIN')")
+	@GetMapping(value = {"/inbox"})
+	public CursorPage<InboxEntry> getInbox(@RequestParam(required=false) String cursor,
+			@RequestParam(required=false) Integer limit,
+			@AuthenticationPrincipal UserDetailsImpl principal) {
+		CursorPage<InboxEntry> page = inboxService.getInbox(principal.getUsername(), cursor, limit);
+		readReceiptService.overlay(page.getItems());
+		return page;
+	}
+	
+	/**
+	 * Function to mark a chat read by the signed-in User up to
+	 * a message, acks below the User's current mark are ignored
+	 * 
+	 * @param id the chat id to look up
+	 * @param upTo the seq of the last message the User has seen
+	 * @param principal the signed-in User
+	 * @return HTTP Code 204 on success
+	 * 			HTTP Code 404 if the chat is not found or not the User's
+	 * @throws NoSuchElementException when the chat cannot be found
+	 * 
+	 * @see com.cogent.service.ReadReceiptService#ack(Long, String, long)
+	 * @since 1.0
+	 */
+	@PreAuthorize("hasRole('USER') or hasRole('MODERATOR') or hasRole('ADMIN')")
+	@PostMapping(value = {"/chats/{id}/read"})
+	public ResponseEntity<String> markRead(@PathVariable("id") Long id, @RequestParam long upTo,
+			@AuthenticationPrincipal UserDetailsImpl principal) throws NoSuchElementException {
+		checkParticipant(id, principal);
+		readReceiptService.ack(id, principal.getUsername(), upTo);
+		return ResponseEntity.noContent().build();
+	}
+	
 	/**
 	 * Function to GET a message given their id
 	 * 
@@ -92,18 +168,99 @@ public class MessageController {
 	}	
 	
 	/**
-	 * Function to ADD a Message to the date base
+	 * Function to GET one page of a chat's history, the
+	 * latest messages unless before or after is given,
+	 * only for the two Users of the chat
+	 * 
+	 * @param id the chat id to look up
+	 * @param before the seq to page back from, exclusive
+	 * @param after the seq to page forward from, exclusive
+	 * @param limit the page size
+	 * @param principal the signed-in User
+	 * @return HTTP Code 200 and a page of Messages, oldest first, on success
+	 * 			HTTP Code 404 if the chat is not found or not the User's
+	 * @throws NoSuchElementException when the chat cannot be found
+	 * 
+	 * @see com.cogent.service.MessageService#getHistory(Long, Long, Long, Integer)
+	 * @since 1.0
+	 */
+	@PreAuthorize("hasRole('USER') or hasRole('MODERATOR') or hasRole('ADMIN')")
+	@GetMapping(value = {"/chats/{id}/messages"})
+	public MessagePage getHistory(@PathVariable("id") Long id,
+			@RequestParam(required=false) Long before, @RequestParam(required=false) Long after,
+			@RequestParam(required=false) Integer limit,
+			@AuthenticationPrincipal UserDetailsImpl principal) throws NoSuchElementException {
+		checkParticipant(id, principal);
+		return messageService.getHistory(id, before, after, limit);
+	}
+	
+	/**
+	 * Function to long-poll for messages of a chat after a seq,
+	 * for clients that cannot hold a push connection open. The
+	 * request answers as soon as there is a newer message, or
+	 * with an empty page once the wait is over, and holds no
+	 * server thread while it waits.
+	 * 
+	 * @param id the chat id to look up
+	 * @param after the seq of the last message the client has
+	 * @param wait how long to wait, such as 30s, at most MAX_WAIT_MS
+	 * @param limit the page size
+	 * @param principal the signed-in User
+	 * @return HTTP Code 200 and a page of Messages, oldest first, empty if none arrived
+	 * 			HTTP Code 404 if the chat is not found or not the User's
+	 * 			HTTP Code 400 if wait cannot be read
+	 * @throws NoSuchElementException when the chat cannot be found
+	 * 
+	 * @see com.cogent.service.MessageService#waitForHistory(Long, Long, Integer, long)
+	 * @since 1.0
+	 */
+	@PreAuthorize("hasRole('USER') or hasRole('MODERATOR') or hasRole('ADMIN')")
+	@GetMapping(value = {"/chats/{id}/messages"}, params = {"after", "wait"})
+	public DeferredResult<MessagePage> waitForHistory(@PathVariable("id") Long id,
+			@RequestParam Long after, @RequestParam String wait,
+			@RequestParam(required=false) Integer limit,
+			@AuthenticationPrincipal UserDetailsImpl principal) throws NoSuchElementException {
+		checkParticipant(id, principal);
+		long waitMillis = Math.min(Time.toMillis(wait), MAX_WAIT_MS);
+		return messageService.waitForHistory(id, after, limit, waitMillis);
+	}
+	
+	/**
+	 * Function to open a server-sent event stream of every new
+	 * message in the signed-in User's chats, for clients that
+	 * cannot use the WebSocket at /ws/messages. After a reconnect
+	 * clients catch up per chat from the history, after the
+	 * last seq they received.
+	 * 
+	 * @param principal the signed-in User
+	 * @return an event stream, one "message" event per new Message
+	 * 
+	 * @see com.cogent.realtime.MessageHub#stream(String)
+	 * @since 1.0
+	 */
+	@PreAuthorize("hasRole('USER') or hasRole('MODERATOR') or hasRole('ADMIN')")
+	@GetMapping(value = {"/messages/stream"}, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter stream(@AuthenticationPrincipal UserDetailsImpl principal) {
+		return messageHub.stream(principal.getUsername());
+	}
+	
+	/**
+	 * Function to ADD a Message to the date base, sent by
+	 * the signed-in User to one of their chats
 	 * 
 	 * @param Message to add
+	 * @param principal the signed-in User, recorded as the sender
 	 * @return HTTP Code 201 on successful Creation
+	 * 			HTTP Code 404 if the chat is not found or not the User's
 	 * 
-	 * @see com.cogent.service.MessageService#saveMessage(Message)
+	 * @see com.cogent.service.MessageService#saveMessage(Message, String)
 	 * @since 1.0
 	 */
 	@PreAuthorize("hasRole('USER') or hasRole('MODERATOR') or hasRole('ADMIN')")
 	@PostMapping(value = {"/messages"})
-	public ResponseEntity<String> add(@RequestBody Message message) {
-		return messageService.saveMessage(message);
+	public CompletableFuture<ResponseEntity<String>> add(@RequestBody Message message,
+			@AuthenticationPrincipal UserDetailsImpl principal) {
+		return messageService.saveMessage(message, principal.getUsername());
 	}
 
 	
@@ -122,4 +279,9 @@ public class MessageController {
 	public ResponseEntity<String> delete(@PathVariable("id") Long id) {
 		return messageService.delete(id);
 	}
+	
+	/** Hides chats of other Users as if they did not exist */
+	private void checkParticipant(Long chatId, UserDetailsImpl principal) throws NoSuchElementException {
+		chatService.checkParticipant(chatId, principal.getUsername());
+	}
 }
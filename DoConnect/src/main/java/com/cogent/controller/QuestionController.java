@@ -8,6 +8,7 @@ import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,11 +16,19 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.cogent.entity.CursorPage;
 import com.cogent.entity.Question;
 import com.cogent.entity.QuestionDTO;
+import com.cogent.entity.QuestionSummary;
+import com.cogent.entity.QuestionThread;
+import com.cogent.ranking.HotQuestionRanker;
+import com.cogent.security.service.UserDetailsImpl;
 import com.cogent.service.QuestionService;
+import com.cogent.service.ThreadService;
+import com.cogent.util.Cursor;
 
 /**
  * Controller to deal with question-related entities
@@ -33,32 +42,62 @@ public class QuestionController {
 	@Autowired
 	private QuestionService questionService;
 	
+	@Autowired
+	private ThreadService threadService;
+	
+	@Autowired
+	private HotQuestionRanker hotQuestionRanker;
+	
 	/**
-	 * Function to GET all questions or filtered questions based 
-	 * off JSON object values
+	 * Function to GET a page of questions or filtered questions based 
+	 * off JSON object values or request parameters
 	 * 
 	 * @param obj HashTable Object to filter out results
-	 * @return HTTP Code 200 and a List of all (filtered) Question Objects on success
+	 * @param status the status to filter by
+	 * @param topic the topic to filter by
+	 * @param cursor the next cursor of the previous page
+	 * @param limit the page size
+	 * @param sort "new" for newest first (default) or "old" for oldest first
+	 * @return HTTP Code 200 and a page of all (filtered) Question summaries on success
+	 * 			HTTP Code 400 if the cursor is not valid
 	 * 
-	 * @see com.cogent.service.QuestionService#getAll()
-	 * @see com.cogent.service.QuestionService#getAllByStatus(String)
-	 * @see com.cogent.service.QuestionService#getAllByTopic(String)
+	 * @see com.cogent.service.QuestionService#getFeed(String, String, String, Integer, boolean)
 	 * @since 1.0
 	 */
 	@GetMapping(value= {"/questions"})
-	public List<Question> getAll(@RequestBody(required=false) Hashtable<String, String> obj) {
+	public CursorPage<QuestionSummary> getAll(@RequestBody(required=false) Hashtable<String, String> obj,
+			@RequestParam(required=false) String status, @RequestParam(required=false) String topic,
+			@RequestParam(required=false) String cursor, @RequestParam(required=false) Integer limit,
+			@RequestParam(required=false, defaultValue="new") String sort) {
 		
 		if(obj != null) {
 			if(obj.containsKey("status")) {
-				return questionService.getAllByStatus(obj.get("status").toString());
+				status = obj.get("status").toString();
 			} else if(obj.containsKey("topic")) {
-				return questionService.getAllByTopic(obj.get("topic").toString());
+				topic = obj.get("topic").toString();
 			}
 		}
 				
-		return questionService.getAll();
+		return questionService.getFeed(topic, status, cursor, limit, "old".equalsIgnoreCase(sort));
 	}
 		
+	/**
+	 * Function to GET the hottest recent questions, ranked by
+	 * votes, answers and age, served from memory
+	 * 
+	 * @param topic the topic to rank within, all topics if not given
+	 * @param limit the number of questions to return
+	 * @return HTTP Code 200 and a List of Question summaries, hottest first
+	 * 
+	 * @see com.cogent.ranking.HotQuestionRanker#getHot(String, int)
+	 * @since 1.0
+	 */
+	@GetMapping(value = {"/questions/hot"})
+	public List<QuestionSummary> getHot(@RequestParam(required=false) String topic,
+			@RequestParam(required=false) Integer limit) {
+		return hotQuestionRanker.getHot(topic, Cursor.clampLimit(limit));
+	}
+	
 	/**
 	 * Function to GET a question given their id
 	 * 
@@ -76,6 +115,24 @@ public class QuestionController {
 		return i.get();
 	}
 	
+	/**
+	 * Function to GET a question together with its answers
+	 * and the caller's votes in a single round trip
+	 * 
+	 * @param id the question id to look up
+	 * @param principal the signed in caller, null if anonymous
+	 * @return HTTP Code 200 and the QuestionThread object on success
+	 * @throws NoSuchElementException when the question cannot be found
+	 * 
+	 * @see com.cogent.service.ThreadService#getThread(Long, Long)
+	 * @since 1.0
+	 */
+	@GetMapping(value = {"/questions/{id}/thread"})
+	public QuestionThread getThread(@PathVariable("id") Long id, 
+			@AuthenticationPrincipal UserDetailsImpl principal) throws NoSuchElementException {
+		return threadService.getThread(id, principal == null ? null : principal.getId());
+	}
+	
 	/**
 	 * Function to ADD a Question to the date base
 	 * 
@@ -0,0 +1,45 @@
+package com.cogent.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.cogent.entity.SearchResult;
+import com.cogent.search.SearchIndex;
+import com.cogent.util.Cursor;
+
+/**
+ * Controller to deal with full-text search
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@CrossOrigin(origins = "http://localhost:4200", maxAge = 3600, allowCredentials="true")
+@RestController
+public class SearchController {
+	@Autowired
+	private SearchIndex searchIndex;
+	
+	/**
+	 * Function to GET Questions and Answers matching the
+	 * words of a query, best match first
+	 * 
+	 * @param q the words to look for
+	 * @param page the zero based page number
+	 * @param limit the page size
+	 * @return HTTP Code 200 and a SearchResult Object on success
+	 * 
+	 * @see com.cogent.search.SearchIndex#search(String, int, int)
+	 * @since 1.0
+	 */
+	@GetMapping(value = {"/search"})
+	public SearchResult search(@RequestParam String q,
+			@RequestParam(required=false, defaultValue="0") int page,
+			@RequestParam(required=false) Integer limit) {
+		int pageSize = Cursor.clampLimit(limit);
+		int offset = (int) Math.min((long) Math.max(page, 0) * pageSize, SearchIndex.MAX_OFFSET);
+		return searchIndex.search(q, offset, pageSize);
+	}
+}
@@ -4,6 +4,7 @@ import java.util.Hashtable;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import javax.validation.Valid;
 
@@ -121,14 +122,14 @@ public class UserController {
 	 * Function to ADD a User to the date base
 	 * 
 	 * @param User to add
-	 * @return HTTP Code 201 on successful Creation
+	 * @return HTTP Code 204 once the User is saved
 	 * 
-	 * @see com.cogent.service.UserService#saveUser(User)
+	 * @see com.cogent.controller.AuthController#registerUser(SignupRequest)
 	 * @since 1.0
 	 */
     @PreAuthorize("hasRole('ADMIN')")
 	@PostMapping(value = {"/users"})
-	public ResponseEntity<?> add(@Valid @RequestBody SignupRequest signUpRequest) {
+	public CompletableFuture<ResponseEntity<?>> add(@Valid @RequestBody SignupRequest signUpRequest) {
 		return authController.registerUser(signUpRequest);
 	}
     
@@ -0,0 +1,78 @@
+package com.cogent.controller;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.cogent.entity.MyVotesRequest;
+import com.cogent.entity.MyVotesResponse;
+import com.cogent.exception.InputChecker;
+import com.cogent.security.service.UserDetailsImpl;
+import com.cogent.service.VoteService;
+import com.cogent.vote.VoteTarget;
+
+/**
+ * Controller to deal with vote lookups spanning
+ * several Questions and Answers
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@CrossOrigin(origins = "http://localhost:4200", maxAge = 3600, allowCredentials="true")
+@RestController
+public class VoteController {
+	/** Largest number of Question ids or Answer ids in one lookup */
+	public static final int MAX_IDS = 200;
+	
+	@Autowired
+	private VoteService voteService;
+	
+	/**
+	 * Function to POST a page of Question and Answer ids
+	 * and get back the caller's vote on each of them, one
+	 * query per kind regardless of the number of ids
+	 * 
+	 * @param obj MyVotesRequest Object with the ids to look up
+	 * @param principal the signed in caller, null if anonymous
+	 * @return HTTP Code 200 and the MyVotesResponse object on success,
+	 * 			empty maps for anonymous callers
+	 * @throws DataIntegrityViolationException when obj is null or holds more than MAX_IDS ids of a kind
+	 * 
+	 * @see com.cogent.service.VoteService#getVotesByEntityIds(VoteTarget, java.util.Collection, Long)
+	 * @since 1.0
+	 */
+	@PostMapping(value = {"/votes/mine"})
+	public MyVotesResponse getMine(@RequestBody MyVotesRequest obj,
+			@AuthenticationPrincipal UserDetailsImpl principal) throws DataIntegrityViolationException {
+		InputChecker.checkObjectIsNull(obj);
+		InputChecker.checkBatchSize(obj.getQuestionIds(), MAX_IDS);
+		InputChecker.checkBatchSize(obj.getAnswerIds(), MAX_IDS);
+		
+		if (principal == null) {
+			return new MyVotesResponse(new HashMap<>(), new HashMap<>());
+		}
+		Long voterId = principal.getId();
+		return new MyVotesResponse(
+				voteService.getVotesByEntityIds(VoteTarget.QUESTION, distinct(obj.getQuestionIds()), voterId),
+				voteService.getVotesByEntityIds(VoteTarget.ANSWER, distinct(obj.getAnswerIds()), voterId));
+	}
+	
+	private static Set<Long> distinct(List<Long> ids) {
+		if (ids == null) {
+			return Collections.emptySet();
+		}
+		Set<Long> set = new LinkedHashSet<>(ids);
+		set.remove(null);
+		return set;
+	}
+}
@@ -1,21 +1,17 @@
 package com.cogent.entity;
 
-import java.util.List;
 
+import javax.persistence.Column;
 import javax.persistence.Entity;
-import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.ManyToOne;
-import javax.persistence.OneToMany;
 import javax.persistence.Table;
 
-import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
-import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 /**
@@ -35,15 +31,10 @@ public class Answer {
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
 	
-	/** User Voting system */
+	/** User Voting system, only changed in place by the vote flush so saves cannot overwrite it */
+	@Column(updatable = false)
 	private int voteTally;
 
-	/** List of UserNames pertaining who has voted on this Question */
-	@OneToMany(mappedBy = "entity", fetch=FetchType.EAGER)
-	@EqualsAndHashCode.Exclude
-	@JsonIgnore
-	private List<AnswerVote> votes;
-	
 	/** Text for the answer */
 	private String descriptionAnswer;
 	
@@ -0,0 +1,34 @@
+package com.cogent.entity;
+
+/**
+ * Projection of an Answer used to render a Question
+ * thread, selected without the vote collection
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+public interface AnswerSummary {
+	/** Unique ID for table lookup */
+	Long getId();
+	
+	/** User Voting system */
+	int getVoteTally();
+	
+	/** Text for the answer */
+	String getDescriptionAnswer();
+	
+	/** Source for Answer */
+	String getImgSrc();
+	
+	/** Answer status whether it is correct or not */
+	boolean isApproved();
+	
+	/** Date time for Answer */
+	String getDatetime();
+	
+	/** username string connected to Answer */
+	String getCreatedBy();
+	
+	/** Admin's username string connected to Answer */
+	String getApprovedBy();
+}
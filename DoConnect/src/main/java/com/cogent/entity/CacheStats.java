@@ -0,0 +1,43 @@
+package com.cogent.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bean Class to hold the counters of a single cache
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CacheStats {
+	/** Name of the cache */
+	private String name;
+	
+	/** Number of entries held */
+	private int size;
+	
+	/** Largest number of entries held */
+	private int maxSize;
+	
+	/** Reads answered from the cache */
+	private long hits;
+	
+	/** Reads that had to load */
+	private long misses;
+	
+	/** Misses that waited for a load of the same key already running */
+	private long coalesced;
+	
+	/** Entries dropped to stay within maxSize */
+	private long evictions;
+	
+	/** Entries dropped for outliving their time to live */
+	private long expirations;
+	
+	/** Entries dropped or patched because the data changed */
+	private long invalidations;
+}
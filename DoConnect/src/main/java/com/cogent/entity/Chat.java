@@ -3,12 +3,15 @@ package com.cogent.entity;
 
 import java.util.List;
 
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.OneToMany;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -42,10 +45,39 @@ public class Chat {
 	/** the second User to share messages */
 	private String userB;
 	
-	/** List of UserNames pertaining who has voted on this Question */
-	@OneToMany(mappedBy = "chat", fetch=FetchType.EAGER)
+	/** Both UserNames in sorted order, unique so each pair has a single Chat */
+	@Column(unique = true, nullable = false, length = 520)
+	@JsonIgnore
+	private String pairKey;
+	
+	/** Sequence number of the latest Message, 0 before the first */
+	private long lastSeq;
+	
+	/** Messages of this Chat, only loaded when read, use the paged history instead */
+	@OneToMany(mappedBy = "chat", fetch=FetchType.LAZY)
 	@EqualsAndHashCode.Exclude
 	@JsonIgnore
 	private List<Message> messages;
 	
+	/**
+	 * Helper function to build the key shared by both
+	 * orders of the same two UserNames
+	 * 
+	 * @param userA one of the Users
+	 * @param userB the other User
+	 * @return the smaller name's length, then both names in sorted order
+	 * @since 1.0
+	 */
+	public static String pairKey(String userA, String userB) {
+		if (userA.compareTo(userB) > 0) {
+			return userB.length() + ":" + userB + ":" + userA;
+		}
+		return userA.length() + ":" + userA + ":" + userB;
+	}
+	
+	@PrePersist
+	@PreUpdate
+	private void fillPairKey() {
+		pairKey = pairKey(userA, userB);
+	}
 }
@@ -0,0 +1,46 @@
+package com.cogent.entity;
+
+import java.util.List;
+import java.util.function.Function;
+
+import com.cogent.util.Cursor;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bean Class to hold a single page of a keyset-paginated list
+ *
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPage<T> {
+	/** Items on this page in feed order */
+	private List<T> items;
+
+	/** Opaque cursor for the next page, null when there is none */
+	private String next;
+
+	/**
+	 * Helper function to build a page from a query that fetched
+	 * one row more than the page size, the extra row only
+	 * tells us that another page exists
+	 *
+	 * @param rows the rows fetched, at most limit + 1
+	 * @param limit the page size
+	 * @param key function to read the keyset column of a row
+	 * @return the page with the next cursor set if there are more rows
+	 * @since 1.0
+	 */
+	public static <T> CursorPage<T> of(List<T> rows, int limit, Function<T, Long> key) {
+		if (rows.size() <= limit) {
+			return new CursorPage<T>(rows, null);
+		}
+		List<T> items = rows.subList(0, limit);
+		return new CursorPage<T>(items, Cursor.encode(key.apply(items.get(limit - 1))));
+	}
+}
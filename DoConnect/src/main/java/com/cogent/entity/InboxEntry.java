@@ -0,0 +1,95 @@
+package com.cogent.entity;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bean Class to hold one Chat in one User's inbox
+ * 
+ * Every Chat with at least one Message has one row per User in it,
+ * written in the same transaction as the Message, so listing a
+ * User's chats with their latest Message is a single range scan
+ * of the (user_name, last_message_id) index and never touches
+ * the chats or messages tables.
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@IdClass(InboxId.class)
+@Table(name="inbox", indexes = {
+		@Index(columnList = "userName, lastMessageId")
+})
+public class InboxEntry {
+	/** Longest preview of the last Message kept */
+	public static final int SNIPPET_LENGTH = 140;
+	
+	/** Username of the User whose inbox this is */
+	@Id
+	@JsonIgnore
+	private String userName;
+	
+	/** ID of the Chat */
+	@Id
+	private Long chatId;
+	
+	/** Username of the other User in the Chat */
+	private String peer;
+	
+	/** ID of the last Message, orders the inbox by latest activity */
+	private Long lastMessageId;
+	
+	/** seq of the last Message */
+	private long lastSeq;
+	
+	/** seq of the last Message this User has read */
+	private long lastReadSeq;
+	
+	/** Who sent the last Message */
+	private String lastFromUser;
+	
+	/** Start of the last Message's text */
+	private String snippet;
+	
+	/** When the last Message was sent */
+	private String lastDatetime;
+	
+	/**
+	 * @return number of Messages this User has not read yet
+	 * @since 1.0
+	 */
+	public long getUnread() {
+		return Math.max(0, lastSeq - lastReadSeq);
+	}
+	
+	/**
+	 * Helper function to cut a Message's text down to a preview
+	 * 
+	 * @param text the text of the Message, may be null
+	 * @return at most SNIPPET_LENGTH characters of the text
+	 * @since 1.0
+	 */
+	public static String snippet(String text) {
+		if (text == null || text.length() <= SNIPPET_LENGTH) {
+			return text;
+		}
+		int end = SNIPPET_LENGTH;
+		/* Do not split a surrogate pair */
+		if (Character.isHighSurrogate(text.charAt(end - 1))) {
+			end--;
+		}
+		return text.substring(0, end);
+	}
+}
@@ -0,0 +1,26 @@
+package com.cogent.entity;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bean Class holding the composite primary key of an InboxEntry
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class InboxId implements Serializable {
+	private static final long serialVersionUID = 1L;
+	
+	/** Username of the User whose inbox this is */
+	private String userName;
+	
+	/** ID of the Chat */
+	private Long chatId;
+}
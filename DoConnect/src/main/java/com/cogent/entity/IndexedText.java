@@ -0,0 +1,22 @@
+package com.cogent.entity;
+
+/**
+ * Projection of the searchable text of a Question
+ * or Answer, read when the search index is built
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+public interface IndexedText {
+	/** ID of the Question or Answer */
+	Long getId();
+	
+	/** ID of the Question, the Answer's Question for Answers */
+	Long getQuestionId();
+	
+	/** Question Title header, null for Answers */
+	String getTitle();
+	
+	/** Text of the Question or Answer */
+	String getBody();
+}
@@ -6,6 +6,7 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -21,13 +22,19 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name="messages")
+@Table(name="messages",
+uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"chat_id", "seq"})
+})
 public class Message {
 	/** Unique ID for table lookup */
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
 	
+	/** Position of the message in its chat, counting up from 1 */
+	private Long seq;
+	
 	/** When the message was sent */
 	private String datetime;
 	
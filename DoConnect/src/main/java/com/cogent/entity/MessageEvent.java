@@ -0,0 +1,48 @@
+package com.cogent.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bean Class to hold a new Message as pushed to
+ * the Users of its Chat
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MessageEvent {
+	/** Unique ID of the Message */
+	private Long id;
+	
+	/** ID of the Chat the Message was sent in */
+	private Long chatId;
+	
+	/** Position of the Message in its Chat, the resume point for history */
+	private Long seq;
+	
+	/** When the message was sent */
+	private String datetime;
+	
+	/** The text on the message */
+	private String messageText;
+	
+	/** Who sent the message */
+	private String fromUser;
+	
+	/**
+	 * Helper function to describe a saved Message
+	 * 
+	 * @param message the saved Message
+	 * @param chatId the id of its Chat
+	 * @return the event to push
+	 * @since 1.0
+	 */
+	public static MessageEvent of(Message message, Long chatId) {
+		return new MessageEvent(message.getId(), chatId, message.getSeq(), message.getDatetime(),
+				message.getMessageText(), message.getFromUser());
+	}
+}
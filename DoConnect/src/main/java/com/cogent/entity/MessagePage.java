@@ -0,0 +1,24 @@
+package com.cogent.entity;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bean Class to hold a page of a Chat's history
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MessagePage {
+	/** Messages on this page, oldest first */
+	private List<Message> items;
+	
+	/** Whether more Messages lie beyond this page in the direction paged */
+	private boolean more;
+}
@@ -0,0 +1,25 @@
+package com.cogent.entity;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bean Class used to ask for the caller's votes
+ * on a page of Questions and Answers
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MyVotesRequest {
+	/** Ids of the Questions to look up, may be null */
+	private List<Long> questionIds;
+	
+	/** Ids of the Answers to look up, may be null */
+	private List<Long> answerIds;
+}
@@ -0,0 +1,25 @@
+package com.cogent.entity;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bean Class to hold the caller's votes on
+ * a page of Questions and Answers
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MyVotesResponse {
+	/** The caller's votes keyed by Question id, only voted Questions are present */
+	private Map<Long, Integer> questions;
+	
+	/** The caller's votes keyed by Answer id, only voted Answers are present */
+	private Map<Long, Integer> answers;
+}
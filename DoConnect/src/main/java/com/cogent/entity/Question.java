@@ -1,13 +1,14 @@
 package com.cogent.entity;
 
 import java.util.List;
-import java.util.Set;
 
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
 
@@ -30,22 +31,20 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Entity
 @EqualsAndHashCode(callSuper=false)
-@Table(name="questions")
+@Table(name="questions", indexes = {
+		@Index(columnList = "topic, id"),
+		@Index(columnList = "status, id")
+})
 public class Question{
 	/** Unique ID for table lookup */
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
 	
-	/** User Voting system */
+	/** User Voting system, only changed in place by the vote flush so saves cannot overwrite it */
+	@Column(updatable = false)
 	private int voteTally;
 	
-	/** List of UserNames pertaining who has voted on this Question */
-	@OneToMany(mappedBy = "entity", fetch=FetchType.EAGER)
-	@EqualsAndHashCode.Exclude
-	@JsonIgnore
-	private Set<QuestionVote> votes;
-	
 	/** Text for the Question */
 	private String descriptionQuestion;
 	
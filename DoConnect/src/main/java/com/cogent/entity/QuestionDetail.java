@@ -0,0 +1,20 @@
+package com.cogent.entity;
+
+/**
+ * Projection of a Question used to render a single
+ * Question page, selected without the vote and
+ * answer collections
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+public interface QuestionDetail extends QuestionSummary {
+	/** Text for the Question */
+	String getDescriptionQuestion();
+	
+	/** Source for a Question Image */
+	String getImageSrc();
+	
+	/** Admin's username string connected to Question */
+	String getApprovedBy();
+}
@@ -0,0 +1,35 @@
+package com.cogent.entity;
+
+/**
+ * Projection of a Question used to render feeds,
+ * selected as a single narrow row without the
+ * vote and answer collections
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+public interface QuestionSummary {
+	/** Unique ID for table lookup */
+	Long getId();
+	
+	/** Question Title header */
+	String getTitle();
+	
+	/** Question topic */
+	String getTopic();
+	
+	/** Question Status Whether it is Closed, Opened or Denied */
+	String getStatus();
+	
+	/** User Voting system */
+	int getVoteTally();
+	
+	/** Number of Answers pertaining to this Question */
+	int getAnswerCount();
+	
+	/** username string connected to Question */
+	String getCreatedBy();
+	
+	/** Date Time for Question */
+	String getDatetime();
+}
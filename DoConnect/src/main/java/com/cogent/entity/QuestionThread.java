@@ -0,0 +1,32 @@
+package com.cogent.entity;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bean Class to hold a Question page in one response:
+ * the Question, its Answers and the caller's votes
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuestionThread {
+	/** The Question being viewed */
+	private QuestionDetail question;
+	
+	/** Answers ordered approved first, then by voteTally */
+	private List<AnswerSummary> answers;
+	
+	/** The caller's vote on the Question, null if none or anonymous */
+	private Integer questionVote;
+	
+	/** The caller's votes keyed by Answer id, only voted Answers are present */
+	private Map<Long, Integer> answerVotes;
+}
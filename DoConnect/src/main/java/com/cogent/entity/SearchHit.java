@@ -0,0 +1,28 @@
+package com.cogent.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bean Class to hold a single search result
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SearchHit {
+	/** Kind of the match, question or answer */
+	private String type;
+	
+	/** ID of the matched Question or Answer */
+	private Long id;
+	
+	/** ID of the Question to open, the Answer's Question for Answers */
+	private Long questionId;
+	
+	/** BM25 relevance score, higher is better */
+	private double score;
+}
@@ -0,0 +1,24 @@
+package com.cogent.entity;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bean Class to hold a single page of search results
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SearchResult {
+	/** Number of matching Questions and Answers on all pages */
+	private int total;
+	
+	/** Results on this page, best match first */
+	private List<SearchHit> hits;
+}
@@ -0,0 +1,19 @@
+package com.cogent.entity;
+
+/**
+ * Projection comparing an entity's stored voteTally
+ * with the sum of its votes in the votes ledger
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+public interface TallyCheck {
+	/** ID of the Question or Answer */
+	Long getEntityId();
+	
+	/** The denormalized voteTally column */
+	int getVoteTally();
+	
+	/** Sum of the entity's rows in the votes table */
+	long getLedgerTally();
+}
@@ -0,0 +1,19 @@
+package com.cogent.entity;
+
+/**
+ * Projection of the unique credentials of a User,
+ * read when the signup prefilter is built
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+public interface UserKeys {
+	/** ID of the User */
+	Long getId();
+	
+	/** Unique UserName for login */
+	String getUserName();
+	
+	/** Unique User email */
+	String getEmail();
+}
@@ -0,0 +1,44 @@
+package com.cogent.entity;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bean Class to hold a single voter's vote on a Question or Answer
+ * 
+ * The primary key (entity_type, entity_id, voter_id) is the only
+ * index on the table, it both enforces one vote per voter and
+ * entity and answers every lookup, so a row is 18 bytes of 
+ * fixed width columns no matter how long the username is.
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@IdClass(VoteId.class)
+@Table(name="votes")
+public class Vote {
+	/** Kind of entity voted on, see VoteTarget#getCode() */
+	@Id
+	private byte entityType;
+	
+	/** ID of the Question or Answer voted on */
+	@Id
+	private Long entityId;
+	
+	/** ID of the User who voted */
+	@Id
+	private Long voterId;
+	
+	/** 1 = upvote, -1 = downvote, removed votes are deleted */
+	private byte vote;
+}
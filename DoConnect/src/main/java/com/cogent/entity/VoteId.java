@@ -0,0 +1,29 @@
+package com.cogent.entity;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bean Class holding the composite primary key of a Vote
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class VoteId implements Serializable {
+	private static final long serialVersionUID = 1L;
+	
+	/** Kind of entity voted on */
+	private byte entityType;
+	
+	/** ID of the Question or Answer voted on */
+	private Long entityId;
+	
+	/** ID of the User who voted */
+	private Long voterId;
+}
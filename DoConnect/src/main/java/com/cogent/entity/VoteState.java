@@ -0,0 +1,15 @@
+package com.cogent.entity;
+
+/**
+ * Projection of a single voter's vote on an entity
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+public interface VoteState {
+	/** ID of the Question or Answer voted on */
+	Long getEntityId();
+	
+	/** 1 = upvote, -1 = downvote */
+	int getVote();
+}
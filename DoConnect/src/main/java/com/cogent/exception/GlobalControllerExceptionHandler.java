@@ -95,5 +95,27 @@ public class GlobalControllerExceptionHandler {
     @ResponseStatus(HttpStatus.BAD_REQUEST)  // 400
     @ExceptionHandler(org.springframework.expression.spel.SpelEvaluationException.class)
     public void handleSpelEvaluationException() {}
+    
+    /**
+     * Stub to handle custom ServerBusyException
+     * and return HTTP Code 503 SERVICE_UNAVAILABLE to end user
+     * 
+     * @see ServerBusyException
+     * @since 1.0
+     */
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)  // 503
+    @ExceptionHandler(ServerBusyException.class)
+    public void handleServerBusy() {}
+    
+    /**
+     * Stub to handle custom TooManyRequestsException
+     * and return HTTP Code 429 TOO_MANY_REQUESTS to end user
+     * 
+     * @see TooManyRequestsException
+     * @since 1.0
+     */
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)  // 429
+    @ExceptionHandler(TooManyRequestsException.class)
+    public void handleTooManyRequests() {}
    
 }
\ No newline at end of file
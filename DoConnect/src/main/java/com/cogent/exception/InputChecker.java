@@ -1,5 +1,6 @@
 package com.cogent.exception;
 
+import java.util.Collection;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 
@@ -41,4 +42,47 @@ public class InputChecker {
 		}
 	}
 	
+	/**
+	 * Helper function to see if a looked up entity exists
+	 * @param found whether the entity was found
+	 * 
+	 * @throws NoSuchElementException if not found
+	 * @see GlobalControllerExceptionHandler#handleNoSuchElement()
+	 * @since 1.0
+	 */
+	public static void checkIsFound(boolean found) throws NoSuchElementException {
+		if (!found) {
+			throw new NoSuchElementException("Not Found");
+		}
+	}
+	
+	/**
+	 * Helper function to see if a vote is one of -1, 0 or 1
+	 * @param vote the vote to check
+	 * 
+	 * @throws DataIntegrityViolationException if the vote is out of range
+	 * @see GlobalControllerExceptionHandler#handleBadJson()
+	 * @since 1.0
+	 */
+	public static void checkVoteIsValid(int vote) throws DataIntegrityViolationException {
+		if (vote < -1 || vote > 1) {
+			throw new DataIntegrityViolationException("Invalid vote");
+		}
+	}
+	
+	/**
+	 * Helper function to see if a batch of ids is within bounds
+	 * @param ids the ids to check, may be null
+	 * @param max the largest number of ids allowed
+	 * 
+	 * @throws DataIntegrityViolationException if there are too many ids
+	 * @see GlobalControllerExceptionHandler#handleBadJson()
+	 * @since 1.0
+	 */
+	public static void checkBatchSize(Collection<?> ids, int max) throws DataIntegrityViolationException {
+		if (ids != null && ids.size() > max) {
+			throw new DataIntegrityViolationException("Too many ids");
+		}
+	}
+	
 }
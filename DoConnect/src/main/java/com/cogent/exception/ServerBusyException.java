@@ -0,0 +1,17 @@
+package com.cogent.exception;
+
+/***
+ * Custom Exception Class to notify Server that work
+ * was turned away because its queue is full
+ * 
+ * @see java.lang.RuntimeException
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+public class ServerBusyException extends RuntimeException {
+	public ServerBusyException(String errorMessage) {
+		super(errorMessage);
+	}
+	private static final long serialVersionUID = 1L;
+}
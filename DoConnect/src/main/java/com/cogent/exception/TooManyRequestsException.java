@@ -0,0 +1,17 @@
+package com.cogent.exception;
+
+/***
+ * Custom Exception Class to notify Server that a
+ * client has used up its budget of requests
+ * 
+ * @see java.lang.RuntimeException
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+public class TooManyRequestsException extends RuntimeException {
+	public TooManyRequestsException(String errorMessage) {
+		super(errorMessage);
+	}
+	private static final long serialVersionUID = 1L;
+}
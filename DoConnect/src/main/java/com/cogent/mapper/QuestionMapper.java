@@ -8,7 +8,6 @@ import org.mapstruct.NullValuePropertyMappingStrategy;
 
 import com.cogent.entity.Question;
 import com.cogent.entity.QuestionDTO;
-import com.cogent.entity.QuestionVote;
 
 @Mapper(componentModel = "spring")
 public interface QuestionMapper {
@@ -17,11 +16,6 @@ public interface QuestionMapper {
     @Mapping(target = "createdBy", ignore = true)
     @Mapping(target = "answers", ignore = true)
     @Mapping(target = "voteTally", ignore = true)
-    @Mapping(target = "votes", ignore = true)
 	@BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
 	void updateQuestion(QuestionDTO obj, @MappingTarget Question entity);
-    
-    @Mapping(target = "id", ignore = true)
-	@BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
-	void updateQuestionVote(QuestionVote questionVote, @MappingTarget QuestionVote entity);
 }
@@ -0,0 +1,186 @@
+package com.cogent.message;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.cogent.entity.Message;
+import com.cogent.entity.MessageEvent;
+import com.cogent.exception.ServerBusyException;
+import com.cogent.realtime.MessageHub;
+
+/**
+ * Group-commit writer for new Messages
+ *
+ * Request threads put Messages on a bounded queue and get a future
+ * back. A single writer thread takes whatever is queued, waits up
+ * to doConnect.app.messages.windowMs for more, and writes the batch
+ * in one transaction through the MessageStore. Only after the commit
+ * are the futures completed and the Messages pushed to the Users of
+ * their Chats, so a sender never gets a 201 for a Message that could
+ * still be rolled back. Under load the queue fills while a commit is
+ * in flight, so the send rate is bounded by how many Messages one
+ * commit can carry rather than by how long a commit takes.
+ *
+ * If a batch fails, its Messages are written again one per
+ * transaction so one bad Message only fails its own request.
+ * Messages that do not fit in the queue are turned away with a 503.
+ *
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@Component
+public class MessagePipeline {
+	private static final Logger logger = LoggerFactory.getLogger(MessagePipeline.class);
+
+	@Autowired
+	private MessageStore messageStore;
+
+	@Autowired
+	private MessageHub messageHub;
+
+	@Value("${doConnect.app.messages.queue:1024}")
+	private int queueSize;
+
+	@Value("${doConnect.app.messages.maxBatch:200}")
+	private int maxBatch;
+
+	@Value("${doConnect.app.messages.windowMs:2}")
+	private long windowMs;
+
+	/** Messages waiting for the writer */
+	private BlockingQueue<PendingMessage> queue;
+
+	private Thread writer;
+
+	/** Cleared on shutdown, the writer then empties the queue and stops */
+	private volatile boolean running = true;
+
+	@PostConstruct
+	public void init() {
+		queue = new ArrayBlockingQueue<>(queueSize);
+		writer = new Thread(this::run, "message-writer");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * Function to queue a Message for the next batch
+	 *
+	 * @param message the Message to write
+	 * @param chatId the id of its Chat, null to find or create the Chat of userA and userB
+	 * @param userA one User of the Chat, used when chatId is null
+	 * @param userB the other User of the Chat, used when chatId is null
+	 * @return the Message with its id and seq once committed, completed exceptionally if it cannot be written
+	 * @throws ServerBusyException if the queue is full or the pipeline is shut down
+	 * @since 1.0
+	 */
+	public CompletableFuture<Message> submit(Message message, Long chatId, String userA, String userB) 
+			throws ServerBusyException {
+		PendingMessage pending = new PendingMessage(message, chatId, userA, userB);
+		if (!running || !queue.offer(pending)) {
+			logger.warn("Message turned away, {} messages queued", queue.size());
+			throw new ServerBusyException("Too many messages in progress");
+		}
+		return pending.getFuture();
+	}
+
+	/**
+	 * @return number of Messages waiting for the writer
+	 * @since 1.0
+	 */
+	public int size() {
+		return queue.size();
+	}
+
+	/**
+	 * Stops taking Messages and waits for the writer
+	 * to write those already queued
+	 *
+	 * @throws InterruptedException if interrupted while waiting
+	 * @since 1.0
+	 */
+	@PreDestroy
+	public void close() throws InterruptedException {
+		running = false;
+		writer.join(TimeUnit.SECONDS.toMillis(30));
+	}
+
+	private void run() {
+		List<PendingMessage> batch = new ArrayList<>(maxBatch);
+		while (running || !queue.isEmpty()) {
+			try {
+				PendingMessage first = queue.poll(100, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(windowMs);
+				while (batch.size() < maxBatch) {
+					queue.drainTo(batch, maxBatch - batch.size());
+					long remaining = deadline - System.nanoTime();
+					if (batch.size() >= maxBatch || remaining <= 0) {
+						break;
+					}
+					PendingMessage next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+					if (next == null) {
+						break;
+					}
+					batch.add(next);
+				}
+				write(batch);
+			} catch (InterruptedException e) {
+				fail(batch, new ServerBusyException("Shutting down"));
+				Thread.currentThread().interrupt();
+				break;
+			} catch (RuntimeException e) {
+				logger.error("Message writer failed: {}", e.getMessage());
+				fail(batch, e);
+			} finally {
+				batch.clear();
+			}
+		}
+		fail(new ArrayList<>(queue), new ServerBusyException("Shutting down"));
+	}
+
+	private void write(List<PendingMessage> batch) {
+		try {
+			messageStore.write(batch);
+		} catch (RuntimeException e) {
+			if (batch.size() == 1) {
+				fail(batch, e);
+				return;
+			}
+			logger.warn("Cannot write batch of {} messages, writing them one by one: {}", 
+					batch.size(), e.getMessage());
+			for (PendingMessage pending : batch) {
+				write(Collections.singletonList(pending));
+			}
+			return;
+		}
+		for (PendingMessage pending : batch) {
+			pending.getFuture().complete(pending.getMessage());
+			messageHub.publish(MessageEvent.of(pending.getMessage(), pending.getChatId()), 
+					pending.getParticipants());
+		}
+	}
+
+	private static void fail(List<PendingMessage> batch, RuntimeException e) {
+		for (PendingMessage pending : batch) {
+			pending.getFuture().completeExceptionally(e);
+		}
+	}
+}
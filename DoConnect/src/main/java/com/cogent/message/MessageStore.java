@@ -0,0 +1,141 @@
+package com.cogent.message;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cogent.entity.Message;
+import com.cogent.repository.ChatRepository;
+import com.cogent.service.ChatService;
+import com.cogent.service.InboxService;
+
+/**
+ * Component to write batches of Messages to the database
+ * on behalf of the MessagePipeline
+ *
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@Component
+public class MessageStore {
+	/** Most rows put in one insert statement */
+	private static final int ROWS_PER_INSERT = 100;
+	
+	/** Columns written per Message, in insert order */
+	private static final int COLUMNS = 5;
+	
+	@PersistenceContext
+	private EntityManager entityManager;
+	
+	@Autowired
+	private ChatRepository chatRepository;
+	
+	@Autowired
+	private ChatService chatService;
+	
+	@Autowired
+	private InboxService inboxService;
+	
+	/**
+	 * Function to write a batch of Messages in one transaction. Chats
+	 * are found or created, each Chat takes the seqs for all of its
+	 * Messages with one update, the Messages go in with multi-row
+	 * inserts and the inboxes move to each Chat's newest Message.
+	 * Messages of a Chat get their seqs in batch order. On return
+	 * every PendingMessage has its Chat, participants, id and seq set,
+	 * any failure rolls back the whole batch.
+	 *
+	 * @param batch the Messages to write, in the order they were sent
+	 * @throws NoSuchElementException if a Message names a Chat that does not exist
+	 * @since 1.0
+	 */
+	@Transactional
+	public void write(List<PendingMessage> batch) throws NoSuchElementException {
+		/* Chats in id order, so batches lock Chat rows in one order */
+		Map<Long, List<PendingMessage>> byChat = new TreeMap<>();
+		for (PendingMessage pending : batch) {
+			Long chatId = pending.getRequestedChatId();
+			List<String> participants;
+			if (chatId == null) {
+				chatId = chatService.resolveId(pending.getUserA(), pending.getUserB());
+				participants = Arrays.asList(pending.getUserA(), pending.getUserB());
+			} else {
+				participants = chatService.getParticipants(chatId);
+				if (participants.isEmpty()) {
+					throw new NoSuchElementException("No chat " + chatId);
+				}
+			}
+			pending.setChatId(chatId);
+			pending.setParticipants(participants);
+			byChat.computeIfAbsent(chatId, key -> new ArrayList<>()).add(pending);
+		}
+		
+		for (Map.Entry<Long, List<PendingMessage>> chat : byChat.entrySet()) {
+			List<PendingMessage> messages = chat.getValue();
+			long seq = chatService.takeSeqs(chat.getKey(), messages.size()) - messages.size();
+			for (PendingMessage pending : messages) {
+				pending.getMessage().setSeq(++seq);
+			}
+		}
+		
+		for (int from = 0; from < batch.size(); from += ROWS_PER_INSERT) {
+			insert(batch.subList(from, Math.min(from + ROWS_PER_INSERT, batch.size())));
+		}
+		
+		for (Map.Entry<Long, List<PendingMessage>> chat : byChat.entrySet()) {
+			List<Message> messages = new ArrayList<>();
+			for (PendingMessage pending : chat.getValue()) {
+				messages.add(pending.getMessage());
+			}
+			inboxService.record(chat.getKey(), chat.getValue().get(0).getParticipants(), messages);
+		}
+		for (PendingMessage pending : batch) {
+			pending.getMessage().setChat(chatService.getReference(pending.getChatId()));
+		}
+	}
+	
+	/**
+	 * Inserts the rows with one statement. InnoDB hands a single
+	 * insert with a known row count a consecutive run of ids and
+	 * last_insert_id() returns the first, the same thing the MySQL
+	 * driver relies on for generated keys of batched inserts.
+	 */
+	private void insert(List<PendingMessage> rows) {
+		StringBuilder sql = new StringBuilder("insert into messages (chat_id, seq, datetime, message_text, from_user) values ");
+		for (int i = 0; i < rows.size(); i++) {
+			int p = i * COLUMNS;
+			sql.append(i == 0 ? "" : ", ").append(String.format("(?%d, ?%d, ?%d, ?%d, ?%d)", 
+					p + 1, p + 2, p + 3, p + 4, p + 5));
+		}
+		Query insert = entityManager.createNativeQuery(sql.toString());
+		for (int i = 0; i < rows.size(); i++) {
+			PendingMessage pending = rows.get(i);
+			Message message = pending.getMessage();
+			int p = i * COLUMNS;
+			insert.setParameter(p + 1, pending.getChatId());
+			insert.setParameter(p + 2, message.getSeq());
+			insert.setParameter(p + 3, message.getDatetime());
+			insert.setParameter(p + 4, message.getMessageText());
+			insert.setParameter(p + 5, message.getFromUser());
+		}
+		int inserted = insert.executeUpdate();
+		if (inserted != rows.size()) {
+			throw new IllegalStateException("Inserted " + inserted + " of " + rows.size() + " messages");
+		}
+		long id = chatRepository.lastInsertId();
+		for (PendingMessage pending : rows) {
+			pending.getMessage().setId(id++);
+		}
+	}
+}
@@ -0,0 +1,39 @@
+package com.cogent.message;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.cogent.entity.Message;
+
+import lombok.Data;
+
+/**
+ * A Message waiting in the MessagePipeline for its batch
+ * to be written, with the future of the request that sent it
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@Data
+public class PendingMessage {
+	/** The Message to write, its id and seq are set once written */
+	private final Message message;
+	
+	/** ID of the Chat named by the request, null to find or create it from the Users */
+	private final Long requestedChatId;
+	
+	/** One User of the Chat as sent */
+	private final String userA;
+	
+	/** The other User of the Chat as sent */
+	private final String userB;
+	
+	/** Completed with the Message once its batch is committed */
+	private final CompletableFuture<Message> future = new CompletableFuture<>();
+	
+	/** ID of the Chat the Message was written to */
+	private Long chatId;
+	
+	/** The two Users of the Chat the Message was written to */
+	private List<String> participants;
+}
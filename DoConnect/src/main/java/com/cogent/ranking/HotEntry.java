@@ -0,0 +1,54 @@
+package com.cogent.ranking;
+
+import com.cogent.entity.QuestionSummary;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.Value;
+import lombok.With;
+
+/**
+ * Immutable snapshot of a Question tracked by the
+ * HotQuestionRanker, served as a QuestionSummary
+ *
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@Value
+@With
+public class HotEntry implements QuestionSummary {
+	/** Unique ID for table lookup */
+	Long id;
+
+	/** Question Title header */
+	String title;
+
+	/** Question topic */
+	String topic;
+
+	/** Question Status Whether it is Closed, Opened or Denied */
+	String status;
+
+	/** User Voting system */
+	int voteTally;
+
+	/** Number of Answers pertaining to this Question */
+	int answerCount;
+
+	/** username string connected to Question */
+	String createdBy;
+
+	/** Date Time for Question */
+	String datetime;
+
+	/** Creation time in seconds since the epoch */
+	@JsonIgnore
+	long createdSeconds;
+
+	/**
+	 * @return the hot score, see HotQuestionRanker#score(int, int, long)
+	 * @since 1.0
+	 */
+	public double getHotScore() {
+		return HotQuestionRanker.score(voteTally, answerCount, createdSeconds);
+	}
+}
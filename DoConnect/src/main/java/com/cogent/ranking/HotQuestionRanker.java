@@ -0,0 +1,344 @@
+package com.cogent.ranking;
+
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.cogent.entity.Question;
+import com.cogent.entity.QuestionSummary;
+import com.cogent.repository.QuestionRepository;
+import com.cogent.util.Time;
+import com.cogent.vote.VoteAggregator;
+import com.cogent.vote.VoteTarget;
+
+/**
+ * Keeps the hottest Questions, overall and per topic, in memory
+ *
+ * A Question's hot score is the order of magnitude of its points,
+ * votes plus weighted answers, plus its creation time scaled so
+ * that every 12.5 hours of age weighs as much as a tenfold drop
+ * in points. The score of a Question only changes when it gets a
+ * vote or an Answer, never with the passing of time, so rankings
+ * stay valid between events and need no periodic rescoring.
+ *
+ * QuestionService, AnswerService and VoteService report every
+ * change as it happens. Each ranking is a sorted set bounded to
+ * twice the served size, so a Question that drops out of the
+ * served part can be replaced without going back to the
+ * database. Questions that drop out of every ranking are kept
+ * in a bounded shadow map, so one that suddenly gets votes or
+ * Answers climbs back in at once. Questions older than the recency window are dropped.
+ * The whole state is rebuilt from the newest Questions at
+ * startup and on a fixed delay to pick up anything the bounded
+ * sets let go of, without losing changes reported meanwhile.
+ *
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@Component
+public class HotQuestionRanker {
+	private static final Logger logger = LoggerFactory.getLogger(HotQuestionRanker.class);
+
+	/** Points one Answer is worth next to one vote */
+	private static final int ANSWER_WEIGHT = 2;
+
+	/** Questions kept out of the rankings per Question served */
+	private static final int SHADOW_FACTOR = 10;
+
+	/** Seconds of age that cost a factor of ten in points */
+	private static final double DECAY_SECONDS = 45000;
+
+	/** Hottest first, ties newest first */
+	private static final Comparator<HotEntry> HOTTEST_FIRST = Comparator
+			.comparingDouble(HotEntry::getHotScore).reversed()
+			.thenComparing(HotEntry::getId, Comparator.reverseOrder());
+
+	@Autowired
+	private QuestionRepository questionRepository;
+
+	@Autowired
+	private VoteAggregator voteAggregator;
+
+	/** Number of Questions served per ranking */
+	@Value("${doConnect.app.hot.size:50}")
+	private int size;
+
+	/** Age in hours after which a Question is no longer ranked */
+	@Value("${doConnect.app.hot.windowHours:72}")
+	private long windowHours;
+
+	/** Number of newest Questions read on a rebuild */
+	@Value("${doConnect.app.hot.rebuildRows:5000}")
+	private int rebuildRows;
+
+	/** Every tracked Question by id */
+	private Map<Long, HotEntry> entries = new HashMap<>();
+
+	/** Ranking over all topics */
+	private TreeSet<HotEntry> global = new TreeSet<>(HOTTEST_FIRST);
+
+	/** Ranking per topic */
+	private Map<String, TreeSet<HotEntry>> byTopic = new HashMap<>();
+
+	/** Questions no ranking holds any more, least recently changed first, so they can climb back */
+	private final LinkedHashMap<Long, HotEntry> shadow = new LinkedHashMap<Long, HotEntry>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, HotEntry> eldest) {
+			return size() > SHADOW_FACTOR * HotQuestionRanker.this.size;
+		}
+	};
+
+	/** While a rebuild reads the database, vote and Answer changes to untracked Questions by id */
+	private Map<Long, int[]> missed;
+
+	/** First vote epoch the rebuild's read does not count, votes from earlier ones are not missed */
+	private long missedEpoch;
+
+	/**
+	 * Helper function to compute a hot score
+	 *
+	 * @param voteTally the Question's votes
+	 * @param answerCount the Question's Answers
+	 * @param createdSeconds creation time in seconds since the epoch
+	 * @return the hot score, higher is hotter
+	 * @since 1.0
+	 */
+	public static double score(int voteTally, int answerCount, long createdSeconds) {
+		long points = (long) voteTally + (long) ANSWER_WEIGHT * answerCount;
+		double order = Math.log10(Math.max(Math.abs(points), 1));
+		return Math.signum(points) * order + createdSeconds / DECAY_SECONDS;
+	}
+
+	/**
+	 * Function to GET the hottest Questions
+	 *
+	 * @param topic the topic to rank within, null for all topics
+	 * @param limit the largest number of Questions to return, at most the configured size
+	 * @return Questions hottest first
+	 * @since 1.0
+	 */
+	public synchronized List<QuestionSummary> getHot(String topic, int limit) {
+		TreeSet<HotEntry> ranking = topic == null ? global : byTopic.get(topic);
+		List<QuestionSummary> hot = new ArrayList<>(Math.min(limit, size));
+		if (ranking == null) {
+			return hot;
+		}
+		long oldest = oldestSeconds();
+		Iterator<HotEntry> it = ranking.iterator();
+		while (it.hasNext() && hot.size() < Math.min(limit, size)) {
+			HotEntry entry = it.next();
+			if (entry.getCreatedSeconds() >= oldest) {
+				hot.add(entry);
+			}
+		}
+		return hot;
+	}
+
+	/**
+	 * Function to start ranking a new Question
+	 *
+	 * @param question the saved Question
+	 * @since 1.0
+	 */
+	public synchronized void onCreated(Question question) {
+		put(new HotEntry(question.getId(), question.getTitle(), question.getTopic(), question.getStatus(),
+				question.getVoteTally(), 0, question.getCreatedBy(), question.getDatetime(),
+				createdSeconds(question.getDatetime())));
+	}
+
+	/**
+	 * Function to pick up changed fields of a ranked Question
+	 *
+	 * @param question the updated Question
+	 * @since 1.0
+	 */
+	public synchronized void onUpdated(Question question) {
+		HotEntry entry = tracked(question.getId());
+		if (entry != null) {
+			put(entry.withTitle(question.getTitle()).withTopic(question.getTopic())
+					.withStatus(question.getStatus()));
+		}
+	}
+
+	/**
+	 * Function to apply a change to a ranked Question's votes
+	 *
+	 * @param id the id of the Question
+	 * @param delta the change to its voteTally
+	 * @param epoch the epoch the vote was submitted in
+	 * @see com.cogent.vote.VoteAggregator#epoch()
+	 * @since 1.0
+	 */
+	public synchronized void onVoted(Long id, int delta, long epoch) {
+		HotEntry entry = tracked(id);
+		if (entry != null) {
+			put(entry.withVoteTally(entry.getVoteTally() + delta));
+		} else if (missed != null && epoch >= missedEpoch) {
+			missed.computeIfAbsent(id, k -> new int[2])[0] += delta;
+		}
+	}
+
+	/**
+	 * Function to apply a change to a ranked Question's Answers
+	 *
+	 * @param id the id of the Question
+	 * @param delta 1 for a new Answer, -1 for a deleted one
+	 * @since 1.0
+	 */
+	public synchronized void onAnswered(Long id, int delta) {
+		HotEntry entry = tracked(id);
+		if (entry != null) {
+			put(entry.withAnswerCount(Math.max(0, entry.getAnswerCount() + delta)));
+		} else if (missed != null) {
+			missed.computeIfAbsent(id, k -> new int[2])[1] += delta;
+		}
+	}
+
+	/**
+	 * Function to stop ranking a deleted Question
+	 *
+	 * @param id the id of the Question
+	 * @since 1.0
+	 */
+	public synchronized void onDeleted(Long id) {
+		HotEntry entry = entries.remove(id);
+		if (entry != null) {
+			unrank(entry);
+		}
+		shadow.remove(id);
+	}
+
+	/**
+	 * Rebuilds every ranking from the newest Questions in the
+	 * database, at startup and then on a fixed delay. Questions
+	 * already tracked keep the counts kept up to date in memory.
+	 * Questions picked up from the database get the vote changes
+	 * the VoteAggregator has not written yet, and any change
+	 * reported for them while the database was being read, but
+	 * for votes the read already counted.
+	 *
+	 * @since 1.0
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(fixedDelayString = "${doConnect.app.hot.rebuildMs:600000}",
+			initialDelayString = "${doConnect.app.hot.rebuildMs:600000}")
+	public void rebuild() {
+		synchronized (this) {
+			missed = new HashMap<>();
+			missedEpoch = voteAggregator.epoch() + 1;
+		}
+		Map<Long, Integer> unflushed = new HashMap<>();
+		List<QuestionSummary> newest = voteAggregator.readSettled(VoteTarget.QUESTION, 
+				() -> questionRepository.findSummariesBefore(Long.MAX_VALUE, PageRequest.of(0, rebuildRows)), 
+				unflushed);
+		long oldest = oldestSeconds();
+		synchronized (this) {
+			Map<Long, HotEntry> known = new HashMap<>(shadow);
+			known.putAll(entries);
+			shadow.clear();
+			entries = new HashMap<>();
+			global = new TreeSet<>(HOTTEST_FIRST);
+			byTopic = new HashMap<>();
+			for (HotEntry entry : known.values()) {
+				put(entry);
+			}
+			for (QuestionSummary summary : newest) {
+				long created = createdSeconds(summary.getDatetime());
+				if (created < oldest || known.containsKey(summary.getId())) {
+					continue;
+				}
+				int[] change = missed.getOrDefault(summary.getId(), new int[2]);
+				put(new HotEntry(summary.getId(), summary.getTitle(), summary.getTopic(), summary.getStatus(), 
+						summary.getVoteTally() + unflushed.getOrDefault(summary.getId(), 0) + change[0], 
+						Math.max(0, summary.getAnswerCount() + change[1]), 
+						summary.getCreatedBy(), summary.getDatetime(), created));
+			}
+			missed = null;
+			logger.debug("Rebuilt hot rankings from {} recent questions", entries.size());
+		}
+	}
+
+	private HotEntry tracked(Long id) {
+		HotEntry entry = entries.get(id);
+		return entry != null ? entry : shadow.get(id);
+	}
+
+	private void put(HotEntry entry) {
+		shadow.remove(entry.getId());
+		HotEntry previous = entries.put(entry.getId(), entry);
+		if (previous != null) {
+			unrank(previous);
+		}
+		if (entry.getCreatedSeconds() < oldestSeconds()) {
+			entries.remove(entry.getId());
+			return;
+		}
+		List<HotEntry> evicted = new ArrayList<>(2);
+		rank(global, entry, evicted);
+		if (entry.getTopic() != null) {
+			rank(byTopic.computeIfAbsent(entry.getTopic(), k -> new TreeSet<>(HOTTEST_FIRST)), entry, evicted);
+		}
+		/* Move Questions no ranking holds any more to the shadow */
+		for (HotEntry dropped : evicted) {
+			TreeSet<HotEntry> ranking = dropped.getTopic() == null ? null : byTopic.get(dropped.getTopic());
+			if (!global.contains(dropped) && (ranking == null || !ranking.contains(dropped))
+					&& entries.remove(dropped.getId(), dropped)) {
+				shadow.put(dropped.getId(), dropped);
+			}
+		}
+	}
+
+	private void rank(TreeSet<HotEntry> ranking, HotEntry entry, List<HotEntry> evicted) {
+		ranking.add(entry);
+		if (ranking.size() > 2 * size) {
+			evicted.add(ranking.pollLast());
+		}
+	}
+
+	private void unrank(HotEntry entry) {
+		global.remove(entry);
+		if (entry.getTopic() != null) {
+			TreeSet<HotEntry> ranking = byTopic.get(entry.getTopic());
+			if (ranking != null) {
+				ranking.remove(entry);
+				if (ranking.isEmpty()) {
+					byTopic.remove(entry.getTopic());
+				}
+			}
+		}
+	}
+
+	private long oldestSeconds() {
+		return System.currentTimeMillis() / 1000 - windowHours * 3600;
+	}
+
+	/** Unreadable times count as the epoch, outside any recency window */
+	private static long createdSeconds(String datetime) {
+		if (datetime != null) {
+			try {
+				return Time.toEpochSecond(datetime);
+			} catch (DateTimeParseException e) {
+				logger.debug("Not ranking question with unreadable datetime {}", datetime);
+			}
+		}
+		return 0;
+	}
+}
@@ -0,0 +1,96 @@
+package com.cogent.realtime;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+import javax.websocket.CloseReason;
+import javax.websocket.Endpoint;
+import javax.websocket.EndpointConfig;
+import javax.websocket.Session;
+
+/**
+ * WebSocket endpoint pushing new Messages to the signed-in User
+ *
+ * The User is taken from the JWT cookie during the handshake by
+ * ChatSocketConfigurator, a connection without one is closed right
+ * away. The socket only pushes, anything the client sends is ignored.
+ *
+ * @author michaelmiranda
+ * @since 1.0
+ */
+public class ChatSocket extends Endpoint {
+	/** Key of the UserName in the handshake's user properties */
+	static final String USER_PROPERTY = "doConnect.userName";
+
+	private final MessageHub messageHub;
+
+	private final long sendTimeoutMs;
+
+	private SocketSubscriber subscriber;
+
+	public ChatSocket(MessageHub messageHub, long sendTimeoutMs) {
+		this.messageHub = messageHub;
+		this.sendTimeoutMs = sendTimeoutMs;
+	}
+
+	@Override
+	public void onOpen(Session session, EndpointConfig config) {
+		Object userName = config.getUserProperties().get(USER_PROPERTY);
+		if (userName == null) {
+			try {
+				session.close(new CloseReason(CloseReason.CloseCodes.VIOLATED_POLICY, "Not signed in"));
+			} catch (IOException e) {
+				/* already gone */
+			}
+			return;
+		}
+		session.getAsyncRemote().setSendTimeout(sendTimeoutMs);
+		subscriber = new SocketSubscriber(userName.toString(), session);
+		messageHub.subscribe(subscriber);
+	}
+
+	@Override
+	public void onClose(Session session, CloseReason closeReason) {
+		if (subscriber != null) {
+			messageHub.unsubscribe(subscriber);
+		}
+	}
+
+	@Override
+	public void onError(Session session, Throwable throwable) {
+		if (subscriber != null) {
+			messageHub.unsubscribe(subscriber);
+		}
+	}
+
+	private static class SocketSubscriber extends Subscriber {
+		private final Session session;
+
+		SocketSubscriber(String userName, Session session) {
+			super(userName);
+			this.session = session;
+		}
+
+		@Override
+		protected CompletableFuture<Void> send(String event) {
+			CompletableFuture<Void> sent = new CompletableFuture<>();
+			session.getAsyncRemote().sendText(event, result -> {
+				if (result.isOK()) {
+					sent.complete(null);
+				} else {
+					sent.completeExceptionally(result.getException());
+				}
+			});
+			return sent;
+		}
+
+		@Override
+		protected void close() {
+			try {
+				session.close();
+			} catch (IOException e) {
+				/* already gone */
+			}
+		}
+	}
+}
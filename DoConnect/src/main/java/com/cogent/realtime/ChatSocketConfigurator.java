@@ -0,0 +1,62 @@
+package com.cogent.realtime;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import javax.websocket.HandshakeResponse;
+import javax.websocket.server.HandshakeRequest;
+import javax.websocket.server.ServerEndpointConfig;
+
+import com.cogent.security.jwt.JwtUtils;
+import com.cogent.security.service.UserDetailsImpl;
+
+/**
+ * Handshake hook of ChatSocket, checks the Origin against the
+ * allowed front ends, reads the User from the JWT cookie and
+ * hands each connection a ChatSocket wired to the MessageHub
+ *
+ * @author michaelmiranda
+ * @since 1.0
+ */
+public class ChatSocketConfigurator extends ServerEndpointConfig.Configurator {
+	private final MessageHub messageHub;
+
+	private final JwtUtils jwtUtils;
+
+	private final Set<String> allowedOrigins;
+
+	private final long sendTimeoutMs;
+
+	public ChatSocketConfigurator(MessageHub messageHub, JwtUtils jwtUtils, Set<String> allowedOrigins,
+			long sendTimeoutMs) {
+		this.messageHub = messageHub;
+		this.jwtUtils = jwtUtils;
+		this.allowedOrigins = allowedOrigins;
+		this.sendTimeoutMs = sendTimeoutMs;
+	}
+
+	@Override
+	public boolean checkOrigin(String originHeaderValue) {
+		/* Browsers always send an Origin, other clients cannot be made to carry the cookie of a victim */
+		return originHeaderValue == null || allowedOrigins.contains(originHeaderValue);
+	}
+
+	@Override
+	public void modifyHandshake(ServerEndpointConfig sec, HandshakeRequest request, HandshakeResponse response) {
+		List<String> cookies = request.getHeaders().getOrDefault("Cookie", Collections.emptyList());
+		for (String header : cookies) {
+			String jwt = jwtUtils.getJwtFromCookieHeader(header);
+			UserDetailsImpl principal = jwt == null ? null : jwtUtils.getPrincipalFromJwtToken(jwt);
+			if (principal != null) {
+				sec.getUserProperties().put(ChatSocket.USER_PROPERTY, principal.getUsername());
+				return;
+			}
+		}
+	}
+
+	@Override
+	public <T> T getEndpointInstance(Class<T> endpointClass) throws InstantiationException {
+		return endpointClass.cast(new ChatSocket(messageHub, sendTimeoutMs));
+	}
+}
@@ -0,0 +1,73 @@
+package com.cogent.realtime;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import javax.servlet.ServletContext;
+import javax.websocket.DeploymentException;
+import javax.websocket.server.ServerContainer;
+import javax.websocket.server.ServerEndpointConfig;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.cogent.security.jwt.JwtUtils;
+
+/**
+ * Registers ChatSocket with the servlet container's
+ * standard WebSocket support once the application is ready
+ *
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@Component
+public class ChatSocketRegistrar {
+	private static final Logger logger = LoggerFactory.getLogger(ChatSocketRegistrar.class);
+
+	/** Path clients open the socket on */
+	public static final String PATH = "/ws/messages";
+
+	@Autowired
+	private ServletContext servletContext;
+
+	@Autowired
+	private MessageHub messageHub;
+
+	@Autowired
+	private JwtUtils jwtUtils;
+
+	@Value("${doConnect.app.push.allowedOrigins:http://localhost:4200}")
+	private String[] allowedOrigins;
+
+	@Value("${doConnect.app.push.sendTimeoutMs:5000}")
+	private long sendTimeoutMs;
+
+	/**
+	 * Adds the endpoint, or logs and leaves pushing to SSE
+	 * if the container has no WebSocket support
+	 *
+	 * @since 1.0
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void register() {
+		Object container = servletContext.getAttribute(ServerContainer.class.getName());
+		if (!(container instanceof ServerContainer)) {
+			logger.warn("No WebSocket support in the servlet container, messages are pushed over SSE only");
+			return;
+		}
+		ServerEndpointConfig config = ServerEndpointConfig.Builder.create(ChatSocket.class, PATH)
+				.configurator(new ChatSocketConfigurator(messageHub, jwtUtils,
+						new HashSet<>(Arrays.asList(allowedOrigins)), sendTimeoutMs))
+				.build();
+		try {
+			((ServerContainer) container).addEndpoint(config);
+		} catch (DeploymentException e) {
+			logger.error("Cannot register WebSocket endpoint {}: {}", PATH, e.getMessage());
+		}
+	}
+}
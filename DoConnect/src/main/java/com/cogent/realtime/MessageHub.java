@@ -0,0 +1,227 @@
+package com.cogent.realtime;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.cogent.entity.MessageEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * In-process registry of push connections by UserName
+ *
+ * MessageService publishes every Message once its transaction has
+ * committed. The event is serialized once and queued on every open
+ * connection of both Users of the Chat, then handed to the connection
+ * by a small pool of push threads. WebSocket writes do not block, a
+ * push thread starts one and moves on, so a slow client cannot hold
+ * up the others. A connection may belong to a WebSocket or an SSE
+ * stream, the hub does not care which. Long-poll requests watch a
+ * single Chat instead and are woken up once by its next Message, on
+ * a pool of their own since a woken request reads the database.
+ *
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@Component
+public class MessageHub {
+	private static final Logger logger = LoggerFactory.getLogger(MessageHub.class);
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${doConnect.app.push.threads:2}")
+	private int threads;
+
+	@Value("${doConnect.app.push.watchThreads:2}")
+	private int watchThreads;
+
+	@Value("${doConnect.app.push.maxPending:256}")
+	private int maxPending;
+
+	@Value("${doConnect.app.push.sseTimeoutMs:1800000}")
+	private long sseTimeoutMs;
+
+	/** Open connections of each User */
+	private final ConcurrentHashMap<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+	/** Long-poll requests waiting for the next Message of each Chat */
+	private final ConcurrentHashMap<Long, Set<Runnable>> watchers = new ConcurrentHashMap<>();
+
+	/** Threads writing events to connections */
+	private ThreadPoolExecutor push;
+
+	/** Threads running the callbacks of woken long-poll requests */
+	private ThreadPoolExecutor wakeups;
+
+	@PostConstruct
+	public void init() {
+		push = pool(threads, "message-push-");
+		wakeups = pool(watchThreads, "message-watch-");
+	}
+
+	@PreDestroy
+	public void close() {
+		push.shutdownNow();
+		wakeups.shutdownNow();
+		subscribers.values().forEach(set -> set.forEach(Subscriber::close));
+		subscribers.clear();
+	}
+
+	/**
+	 * Function to start pushing a User's Messages to a connection
+	 *
+	 * @param subscriber the open connection
+	 * @since 1.0
+	 */
+	public void subscribe(Subscriber subscriber) {
+		subscribers.computeIfAbsent(subscriber.getUserName(), k -> ConcurrentHashMap.newKeySet()).add(subscriber);
+	}
+
+	/**
+	 * Function to open an SSE stream of a User's Messages, the
+	 * stream ends after sseTimeoutMs and the client reconnects
+	 *
+	 * @param userName the signed-in User
+	 * @return the stream to return from the controller
+	 * @since 1.0
+	 */
+	public SseEmitter stream(String userName) {
+		SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+		SseSubscriber subscriber = new SseSubscriber(userName, emitter);
+		emitter.onCompletion(() -> unsubscribe(subscriber));
+		emitter.onTimeout(() -> unsubscribe(subscriber));
+		emitter.onError(e -> unsubscribe(subscriber));
+		subscribe(subscriber);
+		return emitter;
+	}
+
+	/**
+	 * Function to stop pushing to a connection, safe to call more than once
+	 *
+	 * @param subscriber the connection
+	 * @since 1.0
+	 */
+	public void unsubscribe(Subscriber subscriber) {
+		subscribers.computeIfPresent(subscriber.getUserName(), (k, set) -> {
+			set.remove(subscriber);
+			return set.isEmpty() ? null : set;
+		});
+	}
+
+	/**
+	 * Function to run a callback once, on a watch thread, when the
+	 * next Message of a Chat is published. The callback may block,
+	 * it never holds up pushes to connections. A caller must watch before
+	 * it reads the Chat, so a Message committed in between is either
+	 * in what it reads or wakes it up.
+	 *
+	 * @param chatId the id of the Chat
+	 * @param watcher the callback
+	 * @since 1.0
+	 */
+	public void watch(Long chatId, Runnable watcher) {
+		watchers.computeIfAbsent(chatId, k -> ConcurrentHashMap.newKeySet()).add(watcher);
+	}
+
+	/**
+	 * Function to forget a callback that is no longer needed
+	 *
+	 * @param chatId the id of the Chat
+	 * @param watcher the callback
+	 * @since 1.0
+	 */
+	public void unwatch(Long chatId, Runnable watcher) {
+		watchers.computeIfPresent(chatId, (k, set) -> {
+			set.remove(watcher);
+			return set.isEmpty() ? null : set;
+		});
+	}
+
+	/**
+	 * Function to push a new Message to every connection of the given Users
+	 *
+	 * @param event the Message
+	 * @param userNames the Users of its Chat
+	 * @since 1.0
+	 */
+	public void publish(MessageEvent event, Collection<String> userNames) {
+		String json;
+		try {
+			json = objectMapper.writeValueAsString(event);
+		} catch (JsonProcessingException e) {
+			logger.error("Cannot serialize message {}: {}", event.getId(), e.getMessage());
+			return;
+		}
+		for (String userName : userNames) {
+			for (Subscriber subscriber : subscribers.getOrDefault(userName, Collections.emptySet())) {
+				deliver(subscriber, json);
+			}
+		}
+		Set<Runnable> waiting = watchers.remove(event.getChatId());
+		if (waiting != null) {
+			for (Runnable watcher : waiting) {
+				try {
+					wakeups.execute(watcher);
+				} catch (RejectedExecutionException e) {
+					/* shutting down, the request times out */
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the number of open connections
+	 * @since 1.0
+	 */
+	public int size() {
+		return subscribers.values().stream().mapToInt(Set::size).sum();
+	}
+
+	private void deliver(Subscriber subscriber, String json) {
+		if (!subscriber.offer(json, maxPending)) {
+			logger.debug("Dropping slow push connection of {}", subscriber.getUserName());
+			drop(subscriber);
+			return;
+		}
+		if (subscriber.claimDrain()) {
+			try {
+				push.execute(() -> subscriber.drain(() -> drop(subscriber)));
+			} catch (RejectedExecutionException e) {
+				drop(subscriber);
+			}
+		}
+	}
+
+	private static ThreadPoolExecutor pool(int size, String name) {
+		AtomicInteger count = new AtomicInteger();
+		return new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+				runnable -> {
+					Thread thread = new Thread(runnable, name + count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+	}
+
+	private void drop(Subscriber subscriber) {
+		unsubscribe(subscriber);
+		subscriber.close();
+	}
+}
@@ -0,0 +1,44 @@
+package com.cogent.realtime;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-sent event stream of a User, the fallback
+ * for clients that cannot open a WebSocket
+ *
+ * @author michaelmiranda
+ * @since 1.0
+ */
+public class SseSubscriber extends Subscriber {
+	private final SseEmitter emitter;
+
+	public SseSubscriber(String userName, SseEmitter emitter) {
+		super(userName);
+		this.emitter = emitter;
+	}
+
+	/**
+	 * SseEmitter can only write blocking, the event is written
+	 * before this returns
+	 */
+	@Override
+	protected CompletableFuture<Void> send(String event) {
+		CompletableFuture<Void> sent = new CompletableFuture<>();
+		try {
+			emitter.send(SseEmitter.event().name("message").data(event, MediaType.APPLICATION_JSON));
+			sent.complete(null);
+		} catch (IOException e) {
+			sent.completeExceptionally(e);
+		}
+		return sent;
+	}
+
+	@Override
+	protected void close() {
+		emitter.complete();
+	}
+}
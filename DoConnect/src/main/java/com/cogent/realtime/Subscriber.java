@@ -0,0 +1,127 @@
+package com.cogent.realtime;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One open push connection of a User
+ *
+ * Events are queued by the publisher and written one at a time,
+ * the next write starting only once the previous one completed, so
+ * they arrive in publish order and a slow connection never holds up
+ * the thread that published. A connection that can write without
+ * blocking hands back a write still in progress, the MessageHub
+ * thread moves on and the drain carries on from the write's
+ * completion. A connection that lets too many events pile up is
+ * closed, the client catches up from the history on reconnect.
+ *
+ * @author michaelmiranda
+ * @since 1.0
+ */
+public abstract class Subscriber {
+	/** UserName of the User connected */
+	private final String userName;
+
+	/** Events waiting to be written */
+	private final Queue<String> pending = new ConcurrentLinkedQueue<>();
+
+	/** Number of events waiting */
+	private final AtomicInteger size = new AtomicInteger();
+
+	/** Whether a thread is writing events right now */
+	private final AtomicBoolean draining = new AtomicBoolean();
+
+	protected Subscriber(String userName) {
+		this.userName = userName;
+	}
+
+	public String getUserName() {
+		return userName;
+	}
+
+	/**
+	 * Function to start writing one event to the connection
+	 *
+	 * @param event the event as JSON
+	 * @return completed once the event is written, exceptionally if the connection failed
+	 * @since 1.0
+	 */
+	protected abstract CompletableFuture<Void> send(String event);
+
+	/**
+	 * Function to close the connection, must be
+	 * safe to call more than once
+	 *
+	 * @since 1.0
+	 */
+	protected abstract void close();
+
+	/**
+	 * @return false if the queue is full and the event was not taken
+	 * @since 1.0
+	 */
+	boolean offer(String event, int maxPending) {
+		if (size.incrementAndGet() > maxPending) {
+			size.decrementAndGet();
+			return false;
+		}
+		pending.add(event);
+		return true;
+	}
+
+	/**
+	 * @return true if the caller must run drain(), false if a drain is already running
+	 * @since 1.0
+	 */
+	boolean claimDrain() {
+		return draining.compareAndSet(false, true);
+	}
+
+	/**
+	 * Function to write queued events until none are left, returning
+	 * early when a write is still in progress, its completion carries
+	 * on with the rest
+	 *
+	 * @param failed run once if the connection fails
+	 * @since 1.0
+	 */
+	void drain(Runnable failed) {
+		do {
+			String event;
+			while ((event = pending.poll()) != null) {
+				size.decrementAndGet();
+				CompletableFuture<Void> sent;
+				try {
+					sent = send(event);
+				} catch (RuntimeException e) {
+					sent = new CompletableFuture<>();
+					sent.completeExceptionally(e);
+				}
+				if (!sent.isDone()) {
+					sent.whenComplete((done, e) -> {
+						if (e != null) {
+							fail(failed);
+						} else {
+							drain(failed);
+						}
+					});
+					return;
+				}
+				if (sent.isCompletedExceptionally()) {
+					fail(failed);
+					return;
+				}
+			}
+			draining.set(false);
+			/* An event queued after the poll but before the flag was cleared is picked up here */
+		} while (!pending.isEmpty() && claimDrain());
+	}
+
+	private void fail(Runnable failed) {
+		pending.clear();
+		failed.run();
+	}
+}
@@ -1,9 +1,17 @@
 package com.cogent.repository;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.cogent.entity.Answer;
+import com.cogent.entity.AnswerSummary;
+import com.cogent.entity.IndexedText;
+import com.cogent.entity.TallyCheck;
 import com.cogent.entity.Question;
 public interface AnswerRepository extends JpaRepository<Answer, Long> {
 	 /** Query all Answers by Question */
@@ -14,4 +22,37 @@ public interface AnswerRepository extends JpaRepository<Answer, Long> {
 	 
 	 /** Query all not approved Answers */
 	 List<Answer> findByQuestionAndApprovedFalse(Question question);
-}
\ No newline at end of file
+	 
+	 /** Query all Answers of a Question as summaries, approved first then by votes */
+	 @Query("select a.id as id, a.voteTally as voteTally, a.descriptionAnswer as descriptionAnswer, "
+			 + "a.imgSrc as imgSrc, a.approved as approved, a.datetime as datetime, "
+			 + "a.createdBy as createdBy, a.approvedBy as approvedBy from Answer a "
+			 + "where a.question.id = :questionId order by a.approved desc, a.voteTally desc, a.id asc")
+	 List<AnswerSummary> findSummariesByQuestionId(@Param("questionId") Long questionId);
+	 
+	 /** Query which of the given ids still exist */
+	 @Query("select a.id from Answer a where a.id in :ids")
+	 List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+	 
+	 /** Query the id of a Answer and lock its row until commit, empty if there is no such Answer */
+	 @Query(value = "select id from answers where id = :id for update", nativeQuery = true)
+	 List<Long> lockById(@Param("id") Long id);
+	 
+	 /** Function to add to the voteTally in place without loading the Answer */
+	 @Modifying
+	 @Query("update Answer a set a.voteTally = a.voteTally + :delta where a.id = :id")
+	 int addToVoteTally(@Param("id") Long id, @Param("delta") int delta);
+	 
+	 /** Query the next chunk of Answers after the given id next to the sum of their votes */
+	 @Query(value = "select c.id as entityId, c.vote_tally as voteTally, coalesce(sum(v.vote), 0) as ledgerTally "
+			 + "from (select id, vote_tally from answers where id > :after order by id limit :limit) c "
+			 + "left join votes v on v.entity_type = :entityType and v.entity_id = c.id "
+			 + "group by c.id, c.vote_tally order by c.id", nativeQuery = true)
+	 List<TallyCheck> findTallyChecksAfter(@Param("entityType") byte entityType, @Param("after") Long after, 
+			 @Param("limit") int limit);
+	 
+	 /** Query a chunk of searchable Answer text after the given id */
+	 @Query("select a.id as id, a.question.id as questionId, a.descriptionAnswer as body "
+			 + "from Answer a where a.id > :id order by a.id asc")
+	 List<IndexedText> findIndexedTextAfter(@Param("id") Long id, Pageable page);
+}
@@ -2,14 +2,42 @@ package com.cogent.repository;
 import java.util.List;
 import java.util.Optional;
 
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.cogent.entity.Chat;
 
 
-public interface ChatRepository extends CrudRepository<Chat, Long> {
+public interface ChatRepository extends JpaRepository<Chat, Long> {
 
 	 Optional<Chat> findByUserAAndUserB(String userA, String userB);
+	 
+	 /** Query the Chat of a pair of Users through the unique pair key */
+	 Optional<Chat> findByPairKey(String pairKey);
+	 
+	 /**
+	  * Function to create the Chat of a pair of Users unless it exists,
+	  * either way last_insert_id() is left holding the Chat's id
+	  */
+	 @Modifying
+	 @Query(value = "insert into chats (user_a, user_b, pair_key, last_seq) values (:userA, :userB, :pairKey, 0) "
+			 + "on duplicate key update id = last_insert_id(id)", nativeQuery = true)
+	 int upsertChat(@Param("userA") String userA, @Param("userB") String userB, @Param("pairKey") String pairKey);
+	 
+	 /**
+	  * Function to take the next count message sequence numbers of a Chat,
+	  * the Chat row stays locked until commit so numbers commit in order,
+	  * last_insert_id() is left holding the last number taken
+	  */
+	 @Modifying
+	 @Query(value = "update chats set last_seq = last_insert_id(last_seq + :count) where id = :id", nativeQuery = true)
+	 int takeSeqs(@Param("id") Long id, @Param("count") int count);
+	 
+	 /** Query the id or sequence number left by the last upsert or update on this connection */
+	 @Query(value = "select last_insert_id()", nativeQuery = true)
+	 Long lastInsertId();
 	
 	 List<Chat> findByUserAOrUserB(String userA, String userB);
 }
\ No newline at end of file
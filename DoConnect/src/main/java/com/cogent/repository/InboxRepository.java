@@ -0,0 +1,80 @@
+package com.cogent.repository;
+
+import java.util.List;
+
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.cogent.entity.InboxEntry;
+import com.cogent.entity.InboxId;
+
+/**
+ * JPA Repository linked to InboxEntry Entities
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+public interface InboxRepository extends JpaRepository<InboxEntry, InboxId> {
+		/**
+		 * Query a User's inbox entries older than a Message id, latest first, served from the
+		 * (user_name, last_message_id) index. Entries are read-only so pending read marks can
+		 * be laid over them without being written back.
+		 */
+		@QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"))
+		@Query("select i from InboxEntry i where i.userName = :userName and i.lastMessageId < :before "
+				+ "order by i.lastMessageId desc")
+		List<InboxEntry> findPageBefore(@Param("userName") String userName, @Param("before") Long before, 
+				Pageable page);
+		
+		/**
+		 * Function to point a User's inbox entry at a new Message, creating the entry if needed.
+		 * The read mark only ever moves forward, so a sender passes the Message's seq and a
+		 * receiver passes 0.
+		 */
+		@Modifying
+		@Query(value = "insert into inbox (user_name, chat_id, peer, last_message_id, last_seq, last_read_seq, "
+				+ "last_from_user, snippet, last_datetime) "
+				+ "values (:userName, :chatId, :peer, :messageId, :seq, :readSeq, :fromUser, :snippet, :datetime) as new "
+				+ "on duplicate key update last_message_id = new.last_message_id, last_seq = new.last_seq, "
+				+ "last_read_seq = greatest(last_read_seq, new.last_read_seq), "
+				+ "last_from_user = new.last_from_user, snippet = new.snippet, "
+				+ "last_datetime = new.last_datetime", nativeQuery = true)
+		int upsertEntry(@Param("userName") String userName, @Param("chatId") Long chatId, 
+				@Param("peer") String peer, @Param("messageId") Long messageId, @Param("seq") long seq, 
+				@Param("readSeq") long readSeq, @Param("fromUser") String fromUser, 
+				@Param("snippet") String snippet, @Param("datetime") String datetime);
+		
+		/**
+		 * Function to create the missing inbox entries of both Users of every Chat
+		 * from its last Message, entries that exist are left alone
+		 */
+		@Modifying
+		@Query(value = "insert ignore into inbox (user_name, chat_id, peer, last_message_id, last_seq, last_read_seq, "
+				+ "last_from_user, snippet, last_datetime) "
+				+ "select c.user_a, c.id, c.user_b, m.id, m.seq, if(m.from_user = c.user_a, m.seq, 0), "
+				+ "m.from_user, left(m.message_text, :snippetLength), m.datetime "
+				+ "from chats c join messages m on m.chat_id = c.id and m.seq = c.last_seq "
+				+ "union all "
+				+ "select c.user_b, c.id, c.user_a, m.id, m.seq, if(m.from_user = c.user_b, m.seq, 0), "
+				+ "m.from_user, left(m.message_text, :snippetLength), m.datetime "
+				+ "from chats c join messages m on m.chat_id = c.id and m.seq = c.last_seq", nativeQuery = true)
+		int backfill(@Param("snippetLength") int snippetLength);
+		
+		/** Function to move a User's read mark forward, never past the Chat's last Message */
+		@Modifying
+		@Query(value = "update inbox set last_read_seq = greatest(last_read_seq, least(:seq, last_seq)) "
+				+ "where user_name = :userName and chat_id = :chatId", nativeQuery = true)
+		int advanceReadSeq(@Param("userName") String userName, @Param("chatId") Long chatId, 
+				@Param("seq") long seq);
+		
+		/** Function to delete every inbox entry of a Chat */
+		@Modifying
+		@Query("delete from InboxEntry i where i.chatId = :chatId")
+		int deleteByChatId(@Param("chatId") Long chatId);
+}
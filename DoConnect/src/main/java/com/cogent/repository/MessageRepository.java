@@ -2,11 +2,26 @@ package com.cogent.repository;
 
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.cogent.entity.Chat;
 import com.cogent.entity.Message;
 
 public interface MessageRepository extends JpaRepository<Message, Long>{
 	List<Message> findByChat(Chat chat);
+	
+	/** Query the latest Messages of a Chat, newest first, served from the (chat_id, seq) index */
+	@Query("select m from Message m where m.chat.id = :chatId order by m.seq desc")
+	List<Message> findLatest(@Param("chatId") Long chatId, Pageable page);
+	
+	/** Query the Messages of a Chat before a sequence number, newest first */
+	@Query("select m from Message m where m.chat.id = :chatId and m.seq < :seq order by m.seq desc")
+	List<Message> findBefore(@Param("chatId") Long chatId, @Param("seq") Long seq, Pageable page);
+	
+	/** Query the Messages of a Chat after a sequence number, oldest first */
+	@Query("select m from Message m where m.chat.id = :chatId and m.seq > :seq order by m.seq asc")
+	List<Message> findAfter(@Param("chatId") Long chatId, @Param("seq") Long seq, Pageable page);
 }
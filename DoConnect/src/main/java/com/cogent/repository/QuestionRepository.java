@@ -1,10 +1,20 @@
 package com.cogent.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.cogent.entity.IndexedText;
 import com.cogent.entity.Question;
+import com.cogent.entity.QuestionDetail;
+import com.cogent.entity.QuestionSummary;
+import com.cogent.entity.TallyCheck;
 
 /**
  * JPA Repository linked to Question Entities
@@ -18,4 +28,67 @@ public interface QuestionRepository extends JpaRepository<Question, Long> {
 	 
 	 /** Query all Questions by Status */
 	 List<Question> findByStatusEquals(String Status);
-}
\ No newline at end of file
+	 
+	 /** Columns selected for a QuestionSummary, the answer count is a correlated count */
+	 String SUMMARY_SELECT = "select q.id as id, q.title as title, q.topic as topic, q.status as status, "
+			 + "q.voteTally as voteTally, size(q.answers) as answerCount, "
+			 + "q.createdBy as createdBy, q.datetime as datetime from Question q ";
+	 
+	 /** Query the detail of a single Question without its collections */
+	 @Query("select q.id as id, q.title as title, q.topic as topic, q.status as status, "
+			 + "q.voteTally as voteTally, size(q.answers) as answerCount, "
+			 + "q.createdBy as createdBy, q.datetime as datetime, "
+			 + "q.descriptionQuestion as descriptionQuestion, q.imageSrc as imageSrc, "
+			 + "q.approvedBy as approvedBy from Question q where q.id = :id")
+	 Optional<QuestionDetail> findDetailById(@Param("id") Long id);
+	 
+	 /** Query a page of Question summaries older than the cursor id */
+	 @Query(SUMMARY_SELECT + "where q.id < :id order by q.id desc")
+	 List<QuestionSummary> findSummariesBefore(@Param("id") Long id, Pageable page);
+	 
+	 /** Query a page of Question summaries newer than the cursor id */
+	 @Query(SUMMARY_SELECT + "where q.id > :id order by q.id asc")
+	 List<QuestionSummary> findSummariesAfter(@Param("id") Long id, Pageable page);
+	 
+	 /** Query a page of Question summaries by Topic older than the cursor id */
+	 @Query(SUMMARY_SELECT + "where q.topic = :topic and q.id < :id order by q.id desc")
+	 List<QuestionSummary> findSummariesByTopicBefore(@Param("topic") String topic, @Param("id") Long id, Pageable page);
+	 
+	 /** Query a page of Question summaries by Topic newer than the cursor id */
+	 @Query(SUMMARY_SELECT + "where q.topic = :topic and q.id > :id order by q.id asc")
+	 List<QuestionSummary> findSummariesByTopicAfter(@Param("topic") String topic, @Param("id") Long id, Pageable page);
+	 
+	 /** Query a page of Question summaries by Status older than the cursor id */
+	 @Query(SUMMARY_SELECT + "where q.status = :status and q.id < :id order by q.id desc")
+	 List<QuestionSummary> findSummariesByStatusBefore(@Param("status") String status, @Param("id") Long id, Pageable page);
+	 
+	 /** Query a page of Question summaries by Status newer than the cursor id */
+	 @Query(SUMMARY_SELECT + "where q.status = :status and q.id > :id order by q.id asc")
+	 List<QuestionSummary> findSummariesByStatusAfter(@Param("status") String status, @Param("id") Long id, Pageable page);
+	 
+	 /** Query which of the given ids still exist */
+	 @Query("select q.id from Question q where q.id in :ids")
+	 List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+	 
+	 /** Query the id of a Question and lock its row until commit, empty if there is no such Question */
+	 @Query(value = "select id from questions where id = :id for update", nativeQuery = true)
+	 List<Long> lockById(@Param("id") Long id);
+	 
+	 /** Function to add to the voteTally in place without loading the Question */
+	 @Modifying
+	 @Query("update Question q set q.voteTally = q.voteTally + :delta where q.id = :id")
+	 int addToVoteTally(@Param("id") Long id, @Param("delta") int delta);
+	 
+	 /** Query the next chunk of Questions after the given id next to the sum of their votes */
+	 @Query(value = "select c.id as entityId, c.vote_tally as voteTally, coalesce(sum(v.vote), 0) as ledgerTally "
+			 + "from (select id, vote_tally from questions where id > :after order by id limit :limit) c "
+			 + "left join votes v on v.entity_type = :entityType and v.entity_id = c.id "
+			 + "group by c.id, c.vote_tally order by c.id", nativeQuery = true)
+	 List<TallyCheck> findTallyChecksAfter(@Param("entityType") byte entityType, @Param("after") Long after, 
+			 @Param("limit") int limit);
+	 
+	 /** Query a chunk of searchable Question text after the given id */
+	 @Query("select q.id as id, q.id as questionId, q.title as title, q.descriptionQuestion as body "
+			 + "from Question q where q.id > :id order by q.id asc")
+	 List<IndexedText> findIndexedTextAfter(@Param("id") Long id, Pageable page);
+}
@@ -1,10 +1,15 @@
 package com.cogent.repository;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.cogent.entity.User;
+import com.cogent.entity.UserKeys;
 
 
 /**
@@ -16,6 +21,19 @@ import com.cogent.entity.User;
 public interface UserRepository extends JpaRepository<User, Long> {
 	/** Query the first found User by UserName */
 	 Optional<User> findByUserName(String username);
+	 
+	 /** Query the id of a User by UserName, served from the unique username index */
+	 @Query("select u.id from User u where u.userName = :username")
+	 Optional<Long> findIdByUserName(@Param("username") String username);
+	 
+	 /** Query a User by UserName with its Roles fetched in the same select */
+	 @Query("select distinct u from User u left join fetch u.roles where u.userName = :username")
+	 Optional<User> findWithRolesByUserName(@Param("username") String username);
+	 
+	 /** Query a chunk of User credentials after the given id */
+	 @Query("select u.id as id, u.userName as userName, u.email as email "
+			 + "from User u where u.id > :id order by u.id asc")
+	 List<UserKeys> findUserKeysAfter(@Param("id") Long id, Pageable page);
     
     /** Query all Users by UserType*/
   //  List<User> findByUserTypeEquals(String UserType);
@@ -0,0 +1,53 @@
+package com.cogent.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.cogent.entity.Vote;
+import com.cogent.entity.VoteId;
+import com.cogent.entity.VoteState;
+
+/**
+ * JPA Repository linked to Vote Entities
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+public interface VoteRepository extends JpaRepository<Vote, VoteId> {
+		/** Query the votes a voter cast on any of the given entities, one seek per id on the primary key */
+		@Query("select v.entityId as entityId, v.vote as vote from Vote v "
+				+ "where v.entityType = :entityType and v.entityId in :entityIds and v.voterId = :voterId")
+		List<VoteState> findStatesByEntityIdsAndVoterId(@Param("entityType") byte entityType, 
+				@Param("entityIds") Collection<Long> entityIds, @Param("voterId") Long voterId);
+		
+		/** Query the vote value of a voter on an entity */
+		@Query("select v.vote from Vote v "
+				+ "where v.entityType = :entityType and v.entityId = :entityId and v.voterId = :voterId")
+		List<Byte> findVotesByEntityIdAndVoterId(@Param("entityType") byte entityType, 
+				@Param("entityId") Long entityId, @Param("voterId") Long voterId);
+		
+		/** Function to insert a vote or overwrite it in one statement, relies on the primary key */
+		@Modifying
+		@Query(value = "insert into votes (entity_type, entity_id, voter_id, vote) "
+				+ "values (:entityType, :entityId, :voterId, :vote) as new "
+				+ "on duplicate key update vote = new.vote", nativeQuery = true)
+		int upsertVote(@Param("entityType") byte entityType, @Param("entityId") Long entityId, 
+				@Param("voterId") Long voterId, @Param("vote") byte vote);
+		
+		/** Function to delete the vote of a voter on an entity */
+		@Modifying
+		@Query("delete from Vote v "
+				+ "where v.entityType = :entityType and v.entityId = :entityId and v.voterId = :voterId")
+		int deleteVote(@Param("entityType") byte entityType, @Param("entityId") Long entityId, 
+				@Param("voterId") Long voterId);
+		
+		/** Function to delete all votes on an entity */
+		@Modifying
+		@Query("delete from Vote v where v.entityType = :entityType and v.entityId = :entityId")
+		int deleteByEntity(@Param("entityType") byte entityType, @Param("entityId") Long entityId);
+}
@@ -0,0 +1,211 @@
+package com.cogent.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index ranking documents with BM25
+ *
+ * Every term maps to the documents holding it and how often it
+ * occurs in each, so a query only touches the postings of its
+ * own terms. Each document also keeps its term counts so it can
+ * be replaced or removed without scanning the index. Readers
+ * share a lock, writers take it exclusively for the few map
+ * updates of one document.
+ *
+ * @author michaelmiranda
+ * @since 1.0
+ */
+public class InvertedIndex {
+	/** BM25 term frequency saturation */
+	private static final double K1 = 1.2;
+
+	/** BM25 document length normalization */
+	private static final double B = 0.75;
+
+	/** Orders matches by score, ties by key so newer documents rank first */
+	private static final Comparator<Match> WORST_FIRST = (a, b) -> a.score != b.score 
+			? Double.compare(a.score, b.score) : Long.compare(a.key, b.key);
+
+	/** Term to document key to number of occurrences */
+	private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+
+	/** Document key to its term counts */
+	private final Map<Long, Map<String, Integer>> documents = new HashMap<>();
+
+	/** Document key to its number of terms */
+	private final Map<Long, Integer> lengths = new HashMap<>();
+
+	/** Sum of all document lengths */
+	private long totalLength;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/**
+	 * A document key and its score for a query
+	 *
+	 * @since 1.0
+	 */
+	public static class Match {
+		/** Key the document was indexed under */
+		public final long key;
+
+		/** BM25 score, higher is better */
+		public final double score;
+
+		Match(long key, double score) {
+			this.key = key;
+			this.score = score;
+		}
+	}
+
+	/**
+	 * Page of matches and the number of matching documents
+	 *
+	 * @since 1.0
+	 */
+	public static class Matches {
+		/** Number of documents matching any term */
+		public final int total;
+
+		/** Matches on the requested page, best first */
+		public final List<Match> page;
+
+		Matches(int total, List<Match> page) {
+			this.total = total;
+			this.page = page;
+		}
+	}
+
+	/**
+	 * Adds a document, replacing any document under the same key
+	 *
+	 * @param key the key of the document
+	 * @param terms the terms of the document in order
+	 * @since 1.0
+	 */
+	public void put(long key, List<String> terms) {
+		Map<String, Integer> counts = new HashMap<>();
+		for (String term : terms) {
+			counts.merge(term, 1, Integer::sum);
+		}
+		lock.writeLock().lock();
+		try {
+			removeLocked(key);
+			if (terms.isEmpty()) {
+				return;
+			}
+			for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+				postings.computeIfAbsent(entry.getKey(), k -> new HashMap<>()).put(key, entry.getValue());
+			}
+			documents.put(key, counts);
+			lengths.put(key, terms.size());
+			totalLength += terms.size();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes a document if it is indexed
+	 *
+	 * @param key the key of the document
+	 * @since 1.0
+	 */
+	public void remove(long key) {
+		lock.writeLock().lock();
+		try {
+			removeLocked(key);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Scores every document holding any of the terms and
+	 * keeps only the best offset + limit of them
+	 *
+	 * @param terms the query terms, repeated terms count once
+	 * @param offset the number of best matches to skip
+	 * @param limit the largest number of matches to return
+	 * @return the requested page of matches, best first, ties newest key first
+	 * @since 1.0
+	 */
+	public Matches search(List<String> terms, int offset, int limit) {
+		Map<Long, Double> scores = new HashMap<>();
+		lock.readLock().lock();
+		try {
+			int count = documents.size();
+			if (count == 0) {
+				return new Matches(0, Collections.<Match>emptyList());
+			}
+			double averageLength = (double) totalLength / count;
+			Set<String> distinct = new LinkedHashSet<>(terms);
+			for (String term : distinct) {
+				Map<Long, Integer> docs = postings.get(term);
+				if (docs == null) {
+					continue;
+				}
+				double idf = Math.log(1 + (count - docs.size() + 0.5) / (docs.size() + 0.5));
+				for (Map.Entry<Long, Integer> entry : docs.entrySet()) {
+					double tf = entry.getValue();
+					double norm = K1 * (1 - B + B * lengths.get(entry.getKey()) / averageLength);
+					scores.merge(entry.getKey(), idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+
+		/* Keep the best offset + limit in a min-heap instead of sorting every match */
+		int keep = offset + limit;
+		PriorityQueue<Match> best = new PriorityQueue<>(Math.max(1, Math.min(keep, scores.size())), WORST_FIRST);
+		for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+			best.offer(new Match(entry.getKey(), entry.getValue()));
+			if (best.size() > keep) {
+				best.poll();
+			}
+		}
+		List<Match> ranked = new ArrayList<>(best);
+		ranked.sort(WORST_FIRST.reversed());
+		List<Match> page = offset >= ranked.size() ? Collections.<Match>emptyList() 
+				: ranked.subList(offset, ranked.size());
+		return new Matches(scores.size(), page);
+	}
+
+	/**
+	 * @return the number of indexed documents
+	 * @since 1.0
+	 */
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return documents.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void removeLocked(long key) {
+		Map<String, Integer> counts = documents.remove(key);
+		if (counts == null) {
+			return;
+		}
+		for (String term : counts.keySet()) {
+			Map<Long, Integer> docs = postings.get(term);
+			docs.remove(key);
+			if (docs.isEmpty()) {
+				postings.remove(term);
+			}
+		}
+		totalLength -= lengths.remove(key);
+	}
+}
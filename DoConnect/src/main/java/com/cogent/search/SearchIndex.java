@@ -0,0 +1,168 @@
+package com.cogent.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.cogent.entity.Answer;
+import com.cogent.entity.IndexedText;
+import com.cogent.entity.Question;
+import com.cogent.entity.SearchHit;
+import com.cogent.entity.SearchResult;
+import com.cogent.repository.AnswerRepository;
+import com.cogent.repository.QuestionRepository;
+
+/**
+ * Full-text search over Question titles and descriptions
+ * and Answer descriptions
+ *
+ * The index is built from the database once the application
+ * is ready and kept current by QuestionService and AnswerService
+ * on every save, update and delete. Questions and Answers share
+ * one InvertedIndex, the lowest bit of a document key tells them
+ * apart. Question titles are indexed twice so a match in the
+ * title outranks the same match in the description.
+ *
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@Component
+public class SearchIndex {
+	private static final Logger logger = LoggerFactory.getLogger(SearchIndex.class);
+
+	/** Rows read per query while building the index */
+	private static final int BUILD_CHUNK = 1000;
+
+	/** Deepest result a client may page to */
+	public static final int MAX_OFFSET = 1000;
+
+	@Autowired
+	private QuestionRepository questionRepository;
+
+	@Autowired
+	private AnswerRepository answerRepository;
+
+	private final InvertedIndex index = new InvertedIndex();
+
+	/** Answer id to the id of its Question, to link Answer results */
+	private final ConcurrentHashMap<Long, Long> answerQuestions = new ConcurrentHashMap<>();
+
+	/**
+	 * Builds the index from every Question and Answer in id order
+	 *
+	 * @since 1.0
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void build() {
+		long start = System.currentTimeMillis();
+		Long after = 0L;
+		List<IndexedText> rows;
+		do {
+			rows = questionRepository.findIndexedTextAfter(after, PageRequest.of(0, BUILD_CHUNK));
+			for (IndexedText row : rows) {
+				index.put(questionKey(row.getId()), questionTerms(row.getTitle(), row.getBody()));
+				after = row.getId();
+			}
+		} while (rows.size() == BUILD_CHUNK);
+		after = 0L;
+		do {
+			rows = answerRepository.findIndexedTextAfter(after, PageRequest.of(0, BUILD_CHUNK));
+			for (IndexedText row : rows) {
+				answerQuestions.put(row.getId(), row.getQuestionId());
+				index.put(answerKey(row.getId()), Tokenizer.tokenize(row.getBody()));
+				after = row.getId();
+			}
+		} while (rows.size() == BUILD_CHUNK);
+		logger.info("Indexed {} questions and answers for search in {} ms", index.size(),
+				System.currentTimeMillis() - start);
+	}
+
+	/**
+	 * Function to add or replace a Question in the index
+	 *
+	 * @param question the saved Question
+	 * @since 1.0
+	 */
+	public void indexQuestion(Question question) {
+		index.put(questionKey(question.getId()), 
+				questionTerms(question.getTitle(), question.getDescriptionQuestion()));
+	}
+
+	/**
+	 * Function to add or replace an Answer in the index
+	 *
+	 * @param answer the saved Answer
+	 * @since 1.0
+	 */
+	public void indexAnswer(Answer answer) {
+		answerQuestions.put(answer.getId(), answer.getQuestion().getId());
+		index.put(answerKey(answer.getId()), Tokenizer.tokenize(answer.getDescriptionAnswer()));
+	}
+
+	/**
+	 * Function to remove a deleted Question from the index
+	 *
+	 * @param id the id of the Question
+	 * @since 1.0
+	 */
+	public void removeQuestion(Long id) {
+		index.remove(questionKey(id));
+	}
+
+	/**
+	 * Function to remove a deleted Answer from the index
+	 *
+	 * @param id the id of the Answer
+	 * @since 1.0
+	 */
+	public void removeAnswer(Long id) {
+		index.remove(answerKey(id));
+		answerQuestions.remove(id);
+	}
+
+	/**
+	 * Function to rank Questions and Answers against a query
+	 *
+	 * @param query the words to look for
+	 * @param offset the number of best results to skip, at most MAX_OFFSET
+	 * @param limit the page size
+	 * @return the requested page of results, best first
+	 * @since 1.0
+	 */
+	public SearchResult search(String query, int offset, int limit) {
+		InvertedIndex.Matches matches = index.search(Tokenizer.tokenize(query), Math.min(offset, MAX_OFFSET), limit);
+		List<SearchHit> hits = new ArrayList<>(matches.page.size());
+		for (InvertedIndex.Match match : matches.page) {
+			long id = match.key >>> 1;
+			if ((match.key & 1) == 0) {
+				hits.add(new SearchHit("question", id, id, match.score));
+			} else {
+				hits.add(new SearchHit("answer", id, answerQuestions.get(id), match.score));
+			}
+		}
+		return new SearchResult(matches.total, hits);
+	}
+
+	private List<String> questionTerms(String title, String description) {
+		List<String> terms = Tokenizer.tokenize(title);
+		terms.addAll(terms);
+		terms.addAll(Tokenizer.tokenize(description));
+		return terms;
+	}
+
+	private static long questionKey(Long id) {
+		return id << 1;
+	}
+
+	private static long answerKey(Long id) {
+		return (id << 1) | 1;
+	}
+}
@@ -0,0 +1,54 @@
+package com.cogent.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Utility Class to split text into the terms
+ * kept by the search index
+ *
+ * @author michaelmiranda
+ * @since 1.0
+ */
+public class Tokenizer {
+	/** Words too common to tell documents apart */
+	private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+			"a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "into", "is", "it",
+			"no", "not", "of", "on", "or", "such", "that", "the", "their", "then", "there", "these",
+			"they", "this", "to", "was", "will", "with"));
+
+	/** Longest term kept, longer runs are cut */
+	private static final int MAX_TERM = 40;
+
+	/**
+	 * Helper function to split text into lower case terms on
+	 * anything that is not a letter or digit, dropping stop words
+	 * @param text the text to split, may be null
+	 * @return the terms in order, repeated terms are kept
+	 * @since 1.0
+	 */
+	public static List<String> tokenize(String text) {
+		List<String> terms = new ArrayList<>();
+		if (text == null) {
+			return terms;
+		}
+		int start = -1;
+		for (int i = 0; i <= text.length(); i++) {
+			boolean word = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+			if (word && start < 0) {
+				start = i;
+			} else if (!word && start >= 0) {
+				String term = text.substring(start, Math.min(i, start + MAX_TERM)).toLowerCase(Locale.ROOT);
+				if (!STOP_WORDS.contains(term)) {
+					terms.add(term);
+				}
+				start = -1;
+			}
+		}
+		return terms;
+	}
+}
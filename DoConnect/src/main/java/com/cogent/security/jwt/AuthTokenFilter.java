@@ -1,6 +1,10 @@
 package com.cogent.security.jwt;
 
 import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -10,14 +14,33 @@ import javax.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.server.RequestPath;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
 
+import com.cogent.security.service.UserDetailsImpl;
 import com.cogent.security.service.UserDetailsServiceImpl;
 
+/**
+ * Resolves the principal from the JWT cookie, but only for requests
+ * that can use one: every write, and reads whose handler is guarded by
+ * method security or takes an @AuthenticationPrincipal. Other reads
+ * skip the cookie, the signature check and the user lookup entirely,
+ * so GET /questions/{id} is served without a principal while
+ * GET /questions/{id}/thread resolves one to add the caller's votes.
+ */
 public class AuthTokenFilter extends OncePerRequestFilter {
   @Autowired
   private JwtUtils jwtUtils;
@@ -25,18 +48,46 @@ public class AuthTokenFilter extends OncePerRequestFilter {
   @Autowired
   private UserDetailsServiceImpl userDetailsService;
 
+  @Autowired
+  @Qualifier("requestMappingHandlerMapping")
+  private RequestMappingHandlerMapping handlerMapping;
+
   private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
+  /** Whether a handler method reads the principal, by method */
+  private final Map<Method, Boolean> needsPrincipal = new ConcurrentHashMap<>();
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    String method = request.getMethod();
+    if ("OPTIONS".equals(method)) {
+      return true;
+    }
+    if (!"GET".equals(method) && !"HEAD".equals(method)) {
+      return false;
+    }
+    HandlerMethod handler;
+    try {
+      handler = findHandler(request);
+    } catch (Exception e) {
+      /* Cannot tell what the request maps to, resolve the principal to be safe */
+      return false;
+    }
+    return handler == null || !needsPrincipal.computeIfAbsent(handler.getMethod(), AuthTokenFilter::readsPrincipal);
+  }
+
   @Override
   protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
       throws ServletException, IOException {
     try {
       String jwt = parseJwt(request);
-      if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-        String username = jwtUtils.getUserNameFromJwtToken(jwt);
+      UserDetails userDetails = jwt == null ? null : jwtUtils.getPrincipalFromJwtToken(jwt);
+      if (userDetails != null) {
+        /* Tokens issued before the uid claim existed still need the user loaded */
+        if (((UserDetailsImpl) userDetails).getId() == null) {
+          userDetails = userDetailsService.loadUserByUsername(userDetails.getUsername());
+        }
 
-        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-        
         UsernamePasswordAuthenticationToken authentication = 
             new UsernamePasswordAuthenticationToken(userDetails,
                                                     null,
@@ -46,8 +97,10 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
       }
+    } catch (UsernameNotFoundException e) {
+      logger.debug("Cannot set user authentication: {}", e.getMessage());
     } catch (Exception e) {
-      logger.error("Cannot set user authentication: {}", e);
+      logger.error("Cannot set user authentication", e);
     }
 
     filterChain.doFilter(request, response);
@@ -57,4 +110,31 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     String jwt = jwtUtils.getJwtFromCookies(request);
     return jwt;
   }
+
+  /**
+   * Looks up the controller method a request maps to, leaving the
+   * parsed request path as it was so the dispatcher parses its own
+   */
+  private HandlerMethod findHandler(HttpServletRequest request) throws Exception {
+    RequestPath previous = ServletRequestPathUtils.hasParsedRequestPath(request)
+        ? ServletRequestPathUtils.getParsedRequestPath(request) : null;
+    try {
+      ServletRequestPathUtils.parseAndCache(request);
+      HandlerExecutionChain chain = handlerMapping.getHandler(request);
+      return chain != null && chain.getHandler() instanceof HandlerMethod ? (HandlerMethod) chain.getHandler() : null;
+    } finally {
+      if (previous == null) {
+        ServletRequestPathUtils.clearParsedRequestPath(request);
+      } else {
+        ServletRequestPathUtils.setParsedRequestPath(previous, request);
+      }
+    }
+  }
+
+  private static boolean readsPrincipal(Method method) {
+    return AnnotatedElementUtils.hasAnnotation(method, PreAuthorize.class)
+        || AnnotatedElementUtils.hasAnnotation(method.getDeclaringClass(), PreAuthorize.class)
+        || Arrays.stream(method.getParameters())
+            .anyMatch(parameter -> parameter.isAnnotationPresent(AuthenticationPrincipal.class));
+  }
 }
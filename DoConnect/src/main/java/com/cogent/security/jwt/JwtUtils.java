@@ -1,18 +1,32 @@
 package com.cogent.security.jwt;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
 
 import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseCookie;
 import org.springframework.stereotype.Component;
 import org.springframework.web.util.WebUtils;
 
 import com.cogent.security.service.UserDetailsImpl;
+import com.cogent.util.LruCache;
 import io.jsonwebtoken.*;
 
 @Component
@@ -28,6 +42,47 @@ public class JwtUtils {
   @Value("${doConnect.app.jwtCookieName}")
   private String jwtCookie;
 
+  @Autowired
+  private TokenDenylist tokenDenylist;
+
+  @Value("${doConnect.app.jwtCacheSize:10000}")
+  private int jwtCacheSize;
+
+  @Value("${doConnect.app.jwtCacheTtlMs:600000}")
+  private long jwtCacheTtlMs;
+
+  /** Claim holding the user id */
+  private static final String UID_CLAIM = "uid";
+
+  /** Claim holding the role names, comma separated */
+  private static final String ROLES_CLAIM = "roles";
+
+  /** Principals of tokens whose signature was already checked, by token hash */
+  private LruCache<String, VerifiedToken> verifiedTokens;
+
+  /** A verified token's principal and when the token was issued and expires */
+  private static class VerifiedToken {
+    final UserDetailsImpl principal;
+
+    final String jti;
+
+    final long issuedAt;
+
+    final long expiresAt;
+
+    VerifiedToken(UserDetailsImpl principal, String jti, long issuedAt, long expiresAt) {
+      this.principal = principal;
+      this.jti = jti;
+      this.issuedAt = issuedAt;
+      this.expiresAt = expiresAt;
+    }
+  }
+
+  @PostConstruct
+  public void init() {
+    verifiedTokens = new LruCache<>("verifiedTokens", jwtCacheSize, jwtCacheTtlMs);
+  }
+
   public String getJwtFromCookies(HttpServletRequest request) {
     Cookie cookie = WebUtils.getCookie(request, jwtCookie);
     if (cookie != null) {
@@ -37,8 +92,23 @@ public class JwtUtils {
     }
   }
 
+  /**
+   * Reads the JWT from a raw Cookie header, for requests that do not
+   * pass through the servlet API such as WebSocket handshakes
+   */
+  public String getJwtFromCookieHeader(String header) {
+    for (String pair : header.split(";")) {
+      int eq = pair.indexOf('=');
+      if (eq > 0 && pair.substring(0, eq).trim().equals(jwtCookie)) {
+        String value = pair.substring(eq + 1).trim();
+        return value.isEmpty() ? null : value;
+      }
+    }
+    return null;
+  }
+
   public ResponseCookie generateJwtCookie(UserDetailsImpl userPrincipal) {
-    String jwt = generateTokenFromUsername(userPrincipal.getUsername());
+    String jwt = generateTokenFromPrincipal(userPrincipal);
     ResponseCookie cookie = ResponseCookie.from(jwtCookie, jwt).path("/api").maxAge(24 * 60 * 60).httpOnly(true).build();
     return cookie;
   }
@@ -52,31 +122,141 @@ public class JwtUtils {
     return Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token).getBody().getSubject();
   }
 
+  /**
+   * Verifies a token and returns the principal it carries. The signature
+   * is checked once per distinct token, later calls with the same token
+   * are answered from memory until the token expires.
+   *
+   * @return the principal or null if the token is not valid, the id is
+   *         null for tokens issued without the uid claim
+   */
+  public UserDetailsImpl getPrincipalFromJwtToken(String token) {
+    VerifiedToken verified = verifiedTokens.get(hash(token), key -> verify(token));
+    if (verified == null) {
+      return null;
+    }
+    if (verified.expiresAt <= System.currentTimeMillis()) {
+      verifiedTokens.invalidate(hash(token));
+      return null;
+    }
+    if (tokenDenylist.isRevoked(verified.jti)
+        || tokenDenylist.isRevoked(verified.principal.getUsername(), verified.issuedAt)) {
+      return null;
+    }
+    return verified.principal;
+  }
+
+  /**
+   * Revokes a valid token until it expires, tokens issued
+   * without a jti claim cannot be revoked and stay valid
+   *
+   * @return whether the token was valid and revocable
+   */
+  public boolean revokeJwtToken(String token) {
+    VerifiedToken verified = verifiedTokens.get(hash(token), key -> verify(token));
+    if (verified == null || verified.jti == null) {
+      return false;
+    }
+    tokenDenylist.revoke(verified.jti, verified.expiresAt);
+    return true;
+  }
+
+  /**
+   * Revokes every token issued to a user so far, for a user that was
+   * changed or deleted, since a token's id and roles are only read from
+   * its claims. Issue times are whole seconds, so only tokens issued
+   * before the current second are revoked and a sign in right after
+   * the change is not turned away.
+   */
+  public void revokeUserTokens(String userName) {
+    long now = System.currentTimeMillis();
+    tokenDenylist.revoke(userName, now - now % 1000, now + jwtExpirationMs);
+  }
+
   public boolean validateJwtToken(String authToken) {
     try {
       Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(authToken);
       return true;
     } catch (SignatureException e) {
-      logger.error("Invalid JWT signature: {}", e.getMessage());
+      logger.debug("Invalid JWT signature: {}", e.getMessage());
     } catch (MalformedJwtException e) {
-      logger.error("Invalid JWT token: {}", e.getMessage());
+      logger.debug("Invalid JWT token: {}", e.getMessage());
     } catch (ExpiredJwtException e) {
-      logger.error("JWT token is expired: {}", e.getMessage());
+      logger.debug("JWT token is expired: {}", e.getMessage());
     } catch (UnsupportedJwtException e) {
-      logger.error("JWT token is unsupported: {}", e.getMessage());
+      logger.debug("JWT token is unsupported: {}", e.getMessage());
     } catch (IllegalArgumentException e) {
-      logger.error("JWT claims string is empty: {}", e.getMessage());
+      logger.debug("JWT claims string is empty: {}", e.getMessage());
     }
 
     return false;
   }
   
+  public String generateTokenFromPrincipal(UserDetailsImpl userPrincipal) {
+    String roles = userPrincipal.getAuthorities().stream()
+        .map(item -> item.getAuthority())
+        .collect(Collectors.joining(","));
+    return Jwts.builder()
+        .setSubject(userPrincipal.getUsername())
+        .setId(UUID.randomUUID().toString())
+        .claim(UID_CLAIM, userPrincipal.getId())
+        .claim(ROLES_CLAIM, roles)
+        .setIssuedAt(new Date())
+        .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
+        .signWith(SignatureAlgorithm.HS512, jwtSecret)
+        .compact();
+  }
+
   public String generateTokenFromUsername(String username) {   
     return Jwts.builder()
         .setSubject(username)
+        .setId(UUID.randomUUID().toString())
         .setIssuedAt(new Date())
         .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
         .signWith(SignatureAlgorithm.HS512, jwtSecret)
         .compact();
   }
+
+  /** Parses and checks a token once, returning null if it is not valid */
+  private VerifiedToken verify(String token) {
+    Claims claims;
+    try {
+      claims = Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token).getBody();
+    } catch (SignatureException e) {
+      logger.debug("Invalid JWT signature: {}", e.getMessage());
+      return null;
+    } catch (MalformedJwtException e) {
+      logger.debug("Invalid JWT token: {}", e.getMessage());
+      return null;
+    } catch (ExpiredJwtException e) {
+      logger.debug("JWT token is expired: {}", e.getMessage());
+      return null;
+    } catch (UnsupportedJwtException e) {
+      logger.debug("JWT token is unsupported: {}", e.getMessage());
+      return null;
+    } catch (IllegalArgumentException e) {
+      logger.debug("JWT claims string is empty: {}", e.getMessage());
+      return null;
+    }
+
+    Number uid = claims.get(UID_CLAIM, Number.class);
+    String roles = claims.get(ROLES_CLAIM, String.class);
+    List<String> roleNames = roles == null || roles.isEmpty() ? Collections.<String>emptyList()
+        : new ArrayList<>(Arrays.asList(roles.split(",")));
+    UserDetailsImpl principal = UserDetailsImpl.build(uid == null ? null : uid.longValue(),
+        claims.getSubject(), roleNames);
+    long issuedAt = claims.getIssuedAt() == null ? 0 : claims.getIssuedAt().getTime();
+    long expiresAt = claims.getExpiration() == null ? Long.MAX_VALUE : claims.getExpiration().getTime();
+    return new VerifiedToken(principal, claims.getId(), issuedAt, expiresAt);
+  }
+
+  /** Hashes a token so the cache never holds usable tokens */
+  private static String hash(String token) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().encodeToString(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
 }
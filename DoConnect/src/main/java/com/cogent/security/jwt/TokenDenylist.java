@@ -0,0 +1,220 @@
+package com.cogent.security.jwt;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.cogent.util.BloomFilter;
+
+/**
+ * Ids (jti) of signed-out tokens that have not expired yet, and
+ * per username the time before which every token was revoked.
+ *
+ * A check first asks a Bloom filter, so the usual answer, not revoked,
+ * costs a few hashes and no lock. Only a possible hit looks in the map.
+ * Every revocation is appended to a local file before it is
+ * acknowledged, and the file is read back on startup. A scheduled purge
+ * drops expired ids, rewrites the file with what is left and rebuilds
+ * the filter, since a Bloom filter cannot forget.
+ *
+ * Revoking a user's tokens keeps a cutoff for the username until the
+ * last token issued before it has expired. The cutoffs are few, one per
+ * changed or deleted user, so they are checked in their map directly.
+ */
+@Component
+public class TokenDenylist {
+  private static final Logger logger = LoggerFactory.getLogger(TokenDenylist.class);
+
+  @Value("${doConnect.app.revocation.file:revoked-tokens.log}")
+  private String file;
+
+  @Value("${doConnect.app.revocation.expected:10000}")
+  private long expected;
+
+  /** First field of a line holding a user cutoff rather than a revoked id */
+  private static final String USER = "user";
+
+  /** Expiry in epoch millis of every revoked id */
+  private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+  /** Cutoff of every username whose earlier tokens are revoked */
+  private final Map<String, UserCutoff> revokedUsers = new ConcurrentHashMap<>();
+
+  /** Filter of every revoked id, replaced on each purge */
+  private volatile BloomFilter front;
+
+  private Path path;
+
+  private BufferedWriter writer;
+
+  /** Tokens of a user issued before a time, revoked until the last of them expires */
+  private static class UserCutoff {
+    final long issuedBefore;
+
+    final long expiresAt;
+
+    UserCutoff(long issuedBefore, long expiresAt) {
+      this.issuedBefore = issuedBefore;
+      this.expiresAt = expiresAt;
+    }
+  }
+
+  @PostConstruct
+  public void init() throws IOException {
+    path = Paths.get(file).toAbsolutePath();
+    if (path.getParent() != null) {
+      Files.createDirectories(path.getParent());
+    }
+    long now = System.currentTimeMillis();
+    if (Files.exists(path)) {
+      try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          String[] fields = line.split("\t", 4);
+          try {
+            if (fields.length == 4 && fields[0].equals(USER)) {
+              UserCutoff cutoff = new UserCutoff(Long.parseLong(fields[1]), Long.parseLong(fields[2]));
+              if (cutoff.expiresAt > now) {
+                revokedUsers.merge(fields[3], cutoff, TokenDenylist::later);
+              }
+              continue;
+            }
+            long expiresAt = Long.parseLong(fields[1]);
+            if (expiresAt > now) {
+              revoked.put(fields[0], expiresAt);
+            }
+          } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            logger.warn("Skipping unreadable revoked token line in {}", path);
+          }
+        }
+      }
+    }
+    purge();
+    logger.info("Loaded {} revoked token(s)", revoked.size());
+  }
+
+  /**
+   * @return whether the token id was revoked, false for a null id
+   */
+  public boolean isRevoked(String jti) {
+    if (jti == null || !front.mightContain(jti)) {
+      return false;
+    }
+    return revoked.containsKey(jti);
+  }
+
+  /**
+   * @return whether the user's tokens issued at that time were revoked
+   */
+  public boolean isRevoked(String userName, long issuedAt) {
+    UserCutoff cutoff = revokedUsers.get(userName);
+    return cutoff != null && issuedAt < cutoff.issuedBefore;
+  }
+
+  /**
+   * Revokes a token id until the token would have expired anyway,
+   * returning only once the revocation is written to the file
+   *
+   * @throws UncheckedIOException if the revocation cannot be written
+   */
+  public synchronized void revoke(String jti, long expiresAt) {
+    if (jti == null || expiresAt <= System.currentTimeMillis() || revoked.containsKey(jti)) {
+      return;
+    }
+    try {
+      writer.write(jti + "\t" + expiresAt);
+      writer.newLine();
+      writer.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    front.add(jti);
+    revoked.put(jti, expiresAt);
+  }
+
+  /**
+   * Revokes every token of a user issued before a time, returning
+   * only once the revocation is written to the file
+   *
+   * @param issuedBefore tokens issued before this epoch millis are revoked
+   * @param expiresAt when the last of those tokens expires anyway
+   * @throws UncheckedIOException if the revocation cannot be written
+   */
+  public synchronized void revoke(String userName, long issuedBefore, long expiresAt) {
+    if (userName == null || expiresAt <= System.currentTimeMillis()) {
+      return;
+    }
+    UserCutoff cutoff = new UserCutoff(issuedBefore, expiresAt);
+    try {
+      write(userName, cutoff, writer);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    revokedUsers.merge(userName, cutoff, TokenDenylist::later);
+  }
+
+  /**
+   * Drops expired ids, compacts the file and rebuilds the filter
+   *
+   * @throws IOException if the file cannot be rewritten
+   */
+  @Scheduled(fixedDelayString = "${doConnect.app.revocation.purgeMs:600000}")
+  public synchronized void purge() throws IOException {
+    long now = System.currentTimeMillis();
+    revoked.values().removeIf(expiresAt -> expiresAt <= now);
+    revokedUsers.values().removeIf(cutoff -> cutoff.expiresAt <= now);
+
+    BloomFilter filter = new BloomFilter(Math.max(expected, revoked.size() * 2L), 0.01);
+    Path compacted = path.resolveSibling(path.getFileName() + ".tmp");
+    try (BufferedWriter out = Files.newBufferedWriter(compacted, StandardCharsets.UTF_8)) {
+      for (Map.Entry<String, Long> entry : revoked.entrySet()) {
+        filter.add(entry.getKey());
+        out.write(entry.getKey() + "\t" + entry.getValue());
+        out.newLine();
+      }
+      for (Map.Entry<String, UserCutoff> entry : revokedUsers.entrySet()) {
+        write(entry.getKey(), entry.getValue(), out);
+      }
+    }
+    Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    if (writer != null) {
+      writer.close();
+    }
+    writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    front = filter;
+  }
+
+  @PreDestroy
+  public synchronized void close() throws IOException {
+    writer.close();
+  }
+
+  private static void write(String userName, UserCutoff cutoff, BufferedWriter out) throws IOException {
+    out.write(USER + "\t" + cutoff.issuedBefore + "\t" + cutoff.expiresAt + "\t" + userName);
+    out.newLine();
+    out.flush();
+  }
+
+  /** Keeps the later cutoff, which revokes every token the earlier one does */
+  private static UserCutoff later(UserCutoff a, UserCutoff b) {
+    return new UserCutoff(Math.max(a.issuedBefore, b.issuedBefore), Math.max(a.expiresAt, b.expiresAt));
+  }
+}
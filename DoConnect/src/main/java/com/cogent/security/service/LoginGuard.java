@@ -0,0 +1,146 @@
+package com.cogent.security.service;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.cogent.exception.TooManyRequestsException;
+
+/**
+ * Admission control for password checks.
+ *
+ * Every sign-in attempt takes a token from the bucket of its username
+ * and the bucket of its client address, and is turned away with a 429
+ * if either is empty. Admitted attempts then need one of a fixed number
+ * of permits to run BCrypt, so a flood of logins can only ever use that
+ * many cores. Buckets not used within the TTL are swept away.
+ */
+@Service
+public class LoginGuard {
+  @Value("${doConnect.app.login.userBurst:5}")
+  private int userBurst;
+
+  @Value("${doConnect.app.login.userPerMinute:10}")
+  private double userPerMinute;
+
+  @Value("${doConnect.app.login.ipBurst:20}")
+  private int ipBurst;
+
+  @Value("${doConnect.app.login.ipPerMinute:60}")
+  private double ipPerMinute;
+
+  @Value("${doConnect.app.login.bucketTtlMs:600000}")
+  private long bucketTtlMs;
+
+  @Value("${doConnect.app.login.maxWaitMs:100}")
+  private long maxWaitMs;
+
+  /** Buckets of recent usernames, lower-cased */
+  private final ConcurrentHashMap<String, TokenBucket> userBuckets = new ConcurrentHashMap<>();
+
+  /** Buckets of recent client addresses */
+  private final ConcurrentHashMap<String, TokenBucket> ipBuckets = new ConcurrentHashMap<>();
+
+  @Value("${doConnect.app.login.maxConcurrent:2}")
+  private int maxConcurrent;
+
+  /** Permits to run a password check */
+  private Semaphore verifications;
+
+  @PostConstruct
+  public void init() {
+    verifications = new Semaphore(maxConcurrent);
+  }
+
+  /**
+   * Admits a sign-in attempt, the caller must call release() once
+   * the password has been checked
+   *
+   * @throws TooManyRequestsException if the username or address is over
+   *         budget, or no permit frees up within maxWaitMs
+   */
+  public void acquire(String userName, String ip) {
+    long now = System.nanoTime();
+    boolean ipAdmitted = take(ipBuckets, ip, ipBurst, ipPerMinute, now);
+    if (!ipAdmitted || !take(userBuckets, userName == null ? "" : userName.toLowerCase(Locale.ROOT), userBurst, userPerMinute, now)) {
+      throw new TooManyRequestsException("Too many sign-in attempts");
+    }
+    boolean permitted;
+    try {
+      permitted = verifications.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      permitted = false;
+    }
+    if (!permitted) {
+      throw new TooManyRequestsException("Too many sign-ins in progress");
+    }
+  }
+
+  public void release() {
+    verifications.release();
+  }
+
+  /** Drops buckets that have not been used within the TTL */
+  @Scheduled(fixedDelayString = "${doConnect.app.login.bucketTtlMs:600000}")
+  public void sweep() {
+    long cutoff = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(bucketTtlMs);
+    sweep(userBuckets, cutoff);
+    sweep(ipBuckets, cutoff);
+  }
+
+  private static void sweep(ConcurrentHashMap<String, TokenBucket> buckets, long cutoff) {
+    for (String key : buckets.keySet()) {
+      buckets.computeIfPresent(key, (k, bucket) -> bucket.idleSince(cutoff) ? null : bucket);
+    }
+  }
+
+  private static boolean take(ConcurrentHashMap<String, TokenBucket> buckets, String key, int burst,
+      double perMinute, long now) {
+    if (key == null) {
+      return true;
+    }
+    /* Taken inside compute so the sweep never drops a bucket being used */
+    boolean[] taken = new boolean[1];
+    buckets.compute(key, (k, bucket) -> {
+      TokenBucket current = bucket == null ? new TokenBucket(burst, now) : bucket;
+      taken[0] = current.take(burst, perMinute, now);
+      return current;
+    });
+    return taken[0];
+  }
+
+  /** Tokens refilled continuously at a fixed rate up to the burst size */
+  private static class TokenBucket {
+    private double tokens;
+
+    private long updated;
+
+    TokenBucket(int burst, long now) {
+      tokens = burst;
+      updated = now;
+    }
+
+    /** Only called inside ConcurrentHashMap.compute, which serializes calls per key */
+    boolean take(int burst, double perMinute, long now) {
+      tokens = Math.min(burst, tokens + (now - updated) * perMinute / TimeUnit.MINUTES.toNanos(1));
+      updated = now;
+      if (tokens < 1) {
+        return false;
+      }
+      tokens--;
+      return true;
+    }
+
+    boolean idleSince(long cutoff) {
+      return updated - cutoff < 0;
+    }
+  }
+}
@@ -0,0 +1,191 @@
+package com.cogent.security.service;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.cogent.entity.ERole;
+import com.cogent.entity.Role;
+import com.cogent.entity.User;
+import com.cogent.entity.UserKeys;
+import com.cogent.exception.ServerBusyException;
+import com.cogent.repository.RoleRepository;
+import com.cogent.repository.UserRepository;
+import com.cogent.util.BloomFilter;
+
+/**
+ * Signup work kept off the request threads and the database where possible.
+ *
+ * Taken usernames and emails are held in Bloom filters, so a name that
+ * was never taken is accepted without a query. A name the filter may
+ * have seen is checked in the database, and the unique constraints on
+ * users catch whatever slips past both. Roles are read once at startup.
+ * Passwords are hashed on a small fixed pool with a bounded queue, and
+ * signups that do not fit in the queue are turned away with a 503.
+ */
+@Service
+public class SignupService {
+  private static final Logger logger = LoggerFactory.getLogger(SignupService.class);
+
+  /** Number of users read per query while the filters are built */
+  private static final int BUILD_CHUNK = 1000;
+
+  @Autowired
+  UserRepository userRepository;
+
+  @Autowired
+  RoleRepository roleRepository;
+
+  @Autowired
+  PasswordEncoder encoder;
+
+  @Value("${doConnect.app.signup.hashThreads:2}")
+  private int hashThreads;
+
+  @Value("${doConnect.app.signup.hashQueue:64}")
+  private int hashQueue;
+
+  @Value("${doConnect.app.signup.expectedUsers:100000}")
+  private long expectedUsers;
+
+  @Value("${doConnect.app.signup.falsePositiveRate:0.01}")
+  private double falsePositiveRate;
+
+  /** Lower-cased usernames that may be taken */
+  private BloomFilter userNames;
+
+  /** Lower-cased emails that may be taken */
+  private BloomFilter emails;
+
+  /** Whether the filters hold every user, until then every check asks the database */
+  private volatile boolean loaded;
+
+  /** Every Role by name, fixed at startup */
+  private Map<ERole, Role> roles;
+
+  /** Pool hashing passwords */
+  private ThreadPoolExecutor hashing;
+
+  @PostConstruct
+  public void init() {
+    userNames = new BloomFilter(expectedUsers, falsePositiveRate);
+    emails = new BloomFilter(expectedUsers, falsePositiveRate);
+
+    Map<ERole, Role> byName = new EnumMap<>(ERole.class);
+    for (Role role : roleRepository.findAll()) {
+      byName.put(role.getName(), role);
+    }
+    roles = Collections.unmodifiableMap(byName);
+
+    AtomicInteger threads = new AtomicInteger();
+    hashing = new ThreadPoolExecutor(hashThreads, hashThreads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(hashQueue), runnable -> {
+          Thread thread = new Thread(runnable, "signup-hash-" + threads.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  /**
+   * Fills the filters with every existing user once the
+   * application has started and seeded its users
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    Long after = 0L;
+    List<UserKeys> rows;
+    do {
+      rows = userRepository.findUserKeysAfter(after, PageRequest.of(0, BUILD_CHUNK));
+      for (UserKeys row : rows) {
+        remember(row.getUserName(), row.getEmail());
+        after = row.getId();
+      }
+    } while (rows.size() == BUILD_CHUNK);
+    loaded = true;
+  }
+
+  @PreDestroy
+  public void close() {
+    hashing.shutdown();
+  }
+
+  public boolean isUserNameTaken(String userName) {
+    if (loaded && !userNames.mightContain(normalize(userName))) {
+      return false;
+    }
+    return userRepository.existsByUserName(userName);
+  }
+
+  public boolean isEmailTaken(String email) {
+    if (loaded && !emails.mightContain(normalize(email))) {
+      return false;
+    }
+    return userRepository.existsByEmail(email);
+  }
+
+  /**
+   * Records a username and email as taken, called whenever
+   * a user is saved with new credentials
+   */
+  public void remember(String userName, String email) {
+    if (userName != null) {
+      userNames.add(normalize(userName));
+    }
+    if (email != null) {
+      emails.add(normalize(email));
+    }
+  }
+
+  public Role getRole(ERole name) {
+    Role role = roles.get(name);
+    if (role == null) {
+      throw new RuntimeException("Error: Role is not found.");
+    }
+    return role;
+  }
+
+  /**
+   * Hashes the password and saves the user on the hashing pool
+   *
+   * @return the saved user, completed exceptionally if the save fails
+   * @throws ServerBusyException if the hashing queue is full
+   */
+  public CompletableFuture<User> register(User user, String password) {
+    try {
+      return CompletableFuture.supplyAsync(() -> {
+        user.setPassword(encoder.encode(password));
+        User saved = userRepository.save(user);
+        remember(saved.getUserName(), saved.getEmail());
+        return saved;
+      }, hashing);
+    } catch (RejectedExecutionException e) {
+      logger.warn("Signup turned away, {} password hashes queued", hashing.getQueue().size());
+      throw new ServerBusyException("Too many signups in progress");
+    }
+  }
+
+  private static String normalize(String value) {
+    return value.toLowerCase(Locale.ROOT);
+  }
+}
@@ -48,6 +48,18 @@ public class UserDetailsImpl implements UserDetails {
         authorities);
   }
 
+  /**
+   * Builds a principal from the claims of a verified token, without
+   * email or password since neither is carried in the token
+   */
+  public static UserDetailsImpl build(Long id, String username, List<String> roles) {
+    List<GrantedAuthority> authorities = roles.stream()
+        .map(SimpleGrantedAuthority::new)
+        .collect(Collectors.toList());
+
+    return new UserDetailsImpl(id, username, null, null, authorities);
+  }
+
   @Override
   public Collection<? extends GrantedAuthority> getAuthorities() {
     return authorities;
@@ -1,27 +1,67 @@
 package com.cogent.security.service;
 
+import javax.annotation.PostConstruct;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import com.cogent.entity.CacheStats;
 import com.cogent.entity.User;
 import com.cogent.repository.UserRepository;
+import com.cogent.util.LruCache;
 
+/**
+ * Loads principals by username through a read-through cache.
+ * UserService drops a user's entry whenever
+ * the user is saved, changed or deleted.
+ */
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
   @Autowired
   UserRepository userRepository;
 
+  @Value("${doConnect.app.cache.maxPrincipals:10000}")
+  private int maxPrincipals;
+
+  @Value("${doConnect.app.cache.ttlMs:60000}")
+  private long ttlMillis;
+
+  /** Principal by username */
+  private LruCache<String, UserDetailsImpl> principals;
+
+  @PostConstruct
+  public void init() {
+    principals = new LruCache<>("principals", maxPrincipals, ttlMillis);
+  }
+
   @Override
-  @Transactional
   public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-    User user = userRepository.findByUserName(username)
-        .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + username));
+    UserDetailsImpl principal = principals.get(username, key -> userRepository.findWithRolesByUserName(key)
+        .map(UserDetailsImpl::build)
+        .orElse(null));
+    if (principal == null) {
+      throw new UsernameNotFoundException("User Not Found with username: " + username);
+    }
+
+    return principal;
+  }
+
+  /**
+   * Drops the cached principal of a user whose name, password
+   * or roles changed, or who was created or deleted
+   */
+  public void invalidate(String username) {
+    if (username != null) {
+      principals.invalidate(username);
+    }
+  }
 
-    return UserDetailsImpl.build(user);
+  public CacheStats stats() {
+    return principals.stats();
   }
 
 }
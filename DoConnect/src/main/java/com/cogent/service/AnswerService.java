@@ -9,14 +9,17 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.cogent.cache.ContentCache;
 import com.cogent.entity.Answer;
 import com.cogent.entity.AnswerDTO;
-import com.cogent.entity.AnswerVote;
 import com.cogent.entity.Question;
 import com.cogent.exception.InputChecker;
 import com.cogent.mapper.AnswerMapper;
+import com.cogent.ranking.HotQuestionRanker;
 import com.cogent.repository.AnswerRepository;
+import com.cogent.search.SearchIndex;
 import com.cogent.util.Time;
+import com.cogent.vote.VoteTarget;
 
 /**
  * Service to connect API Answer-related 
@@ -36,7 +39,19 @@ public class AnswerService{
 	
 	/** Service to maintain voting */
 	@Autowired
-	private AnswerVoteService answerVoteService;
+	private VoteService voteService;
+	
+	/** Read-through cache of Questions and Answers */
+	@Autowired
+	private ContentCache contentCache;
+	
+	/** Full-text index kept current with every change */
+	@Autowired
+	private SearchIndex searchIndex;
+	
+	/** Hot rankings, counting Answers of each Question */
+	@Autowired
+	private HotQuestionRanker hotQuestionRanker;
 	
 	/** Service to get questions */
 	@Autowired
@@ -60,6 +75,9 @@ public class AnswerService{
 		answer.setDatetime(Time.getTimeNow());
 		answer.setQuestion(questionService.get(answer.getQuestion().getId()).get());
 		Answer answerSaved = answerRepository.save(answer);
+		contentCache.answerChanged(null, answerSaved.getQuestion().getId());
+		searchIndex.indexAnswer(answerSaved);
+		hotQuestionRanker.onAnswered(answerSaved.getQuestion().getId(), 1);
 		URI location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
 				.buildAndExpand(answerSaved.getId()).toUri();
 		
@@ -69,16 +87,18 @@ public class AnswerService{
 	/**
 	 * Service Method to return a single
 	 * Answer Entity via id given 
-	 * through the JPARepository 
+	 * through the ContentCache, loaded
+	 * through the JPARepository on a miss
 	 * 
 	 * @param id the unique id to search for
 	 * @return Optional Object with a Answer Entity if found or Null
 	 * 
+	 * @see com.cogent.cache.ContentCache#getAnswer(Long, java.util.function.Function)
 	 * @see org.springframework.data.jpa.repository.CrudRepository#findById(Id)
 	 * @since 1.0
 	 */
 	public Optional<Answer> get(Long id){
-		return answerRepository.findById(id);
+		return Optional.ofNullable(contentCache.getAnswer(id, key -> answerRepository.findById(key).orElse(null)));
 	}
 
 	/**
@@ -98,17 +118,19 @@ public class AnswerService{
 	/**
 	 * Service Method to request
 	 * all Answer Entities filtered by answerTopic
-	 * through the JPARepository 
+	 * through the ContentCache, loaded
+	 * through the JPARepository on a miss
 	 * 
 	 * @param answerTopic the string to filter by
 	 * @return list of Answer entities
 	 * 
+	 * @see com.cogent.cache.ContentCache#getAnswersByQuestion(Long, java.util.function.Function)
 	 * @see com.cogent.repository.AnswerRepository#findByQuestion(Question)
 	 * @since 1.0
 	 */
 	public List<Answer> getAllByQuestion(Question question){
 		InputChecker.checkObjectIsNull(question);
-		return (List<Answer>) answerRepository.findByQuestion(question);
+		return contentCache.getAnswersByQuestion(question.getId(), key -> answerRepository.findByQuestion(question));
 	}
 	
 	/**
@@ -162,6 +184,8 @@ public class AnswerService{
 		Answer answerToUpdate = answerOptional.get();
 		mapper.updateAnswerFromDto(obj, answerToUpdate);
 		answerRepository.save(answerToUpdate);
+		contentCache.answerChanged(id, answerToUpdate.getQuestion().getId());
+		searchIndex.indexAnswer(answerToUpdate);
 		
 
 		return ResponseEntity.noContent().build();		
@@ -170,75 +194,41 @@ public class AnswerService{
 	/**
 	 * Service Method to request update a 
 	 * Answer Entity votes, given an existing ID
-	 * through the JPARepository 
+	 * through the VoteService, the vote is journaled and
+	 * acknowledged immediately and reaches the database 
+	 * with the next batch
 	 * 
-	 * @param answer the answer to save in the database
+	 * @param obj the DTO holding the voter and the vote
 	 * @param id the unique id to search for
 	 * @return ResponseEntity with HTTP 204 response on success 
 	 * 			HTTP 404 if id not found,
-	 * 			HTTP 406 if AnswerDTO is null,
+	 * 			HTTP 404 if the voter is not a User,
+	 * 			HTTP 400 if AnswerDTO, voter or vote is invalid,
 	 * 			HTTP 400 if user has already voted
 	 * 
-	 * @see org.springframework.data.repository.CrudRepository.findById(Integer id)
-	 * @see com.cogent.exception.InputChecker#checkOptionalIsEmpty(Optional)
+	 * @see org.springframework.data.repository.CrudRepository#existsById(Object)
+	 * @see com.cogent.exception.InputChecker#checkIsFound(boolean)
 	 * @see com.cogent.exception.InputChecker#checkObjectIsNull(Object)
-	 * @see com.cogent.entity.AnswerDTO
-	 * @see org.springframework.http.ResponseEntity.HeadersBuilder#build()
-	 * @see org.springframework.http.ResponseEntity.noContent()
-	 * @see org.springframework.data.jpa.repository.CrudRepository#save(S)
+	 * @see com.cogent.exception.InputChecker#checkVoteIsValid(int)
+	 * @see com.cogent.service.VoteService#vote(VoteTarget, Long, String, int)
 	 * @since 1.0
 	 */
 	public ResponseEntity<String> vote(AnswerDTO obj, Long id) {
-		Optional<Answer> answerOptional = answerRepository.findById(id);
-
-		InputChecker.checkOptionalIsEmpty(answerOptional);
 		InputChecker.checkObjectIsNull(obj);
-		
-		Answer answerToVote = answerOptional.get();
-		InputChecker.checkObjectIsNull(answerToVote.getVotes());
 		InputChecker.checkObjectIsNull(obj.getUserVoter());
+		InputChecker.checkVoteIsValid(obj.getVote());
+		InputChecker.checkIsFound(answerRepository.existsById(id));
 		
-		Optional<AnswerVote> answerVoteOptional = 
-				answerVoteService.getByAnswerUserName(answerToVote, obj.getUserVoter());
-		/* Add if vote if does not exist, change tally */
-		if (!answerVoteOptional.isPresent() && obj.getVote() != 0) {
-			System.out.println("answerVoteOptional == null");
-			
-			AnswerVote newAnswerVote = 
-					new AnswerVote(null, obj.getUserVoter(), obj.getVote(), answerToVote);
-			answerVoteService.saveAnswerVote(newAnswerVote);
-			answerToVote.setVoteTally(answerToVote.getVoteTally() + obj.getVote());
-		} else {
-			AnswerVote answerVoteLog = answerVoteOptional.get();
-			/* Delete and change tally if the new vote is 0 */
-			if (answerVoteOptional.isPresent() && obj.getVote() == 0) {
-				answerToVote.setVoteTally(answerToVote.getVoteTally() - answerVoteLog.getVote());
-				answerVoteLog.setVote(0);
-				answerToVote.getVotes().remove(answerVoteLog);
-			} 
-			/* 
-			 * If the Voter already voted for this entity 
-			 * and their results are changed, 
-			 * change the log and the tally
-			 */
-			else if (answerVoteLog.getVote() != obj.getVote()) {
-				answerToVote.setVoteTally(answerToVote.getVoteTally() + (obj.getVote() * 2));
-				answerVoteService.update(new AnswerVote(answerVoteLog.getId(), null, obj.getVote(), answerToVote)
-						,answerVoteLog.getId());
-			}
-			/*
-			 * If the Voter already voted for this entity 
-			 * and their results are the same
-			 * do not do anything and return HTTP 400
-			 */
-			else {
-				return ResponseEntity.status(400).build();
-				//TODO: Logic Working as intended but sends 204
-			}	
-			
+		/*
+		 * If the Voter already voted for this entity 
+		 * and their results are the same
+		 * do not do anything and return HTTP 400
+		 */
+		int delta = voteService.vote(VoteTarget.ANSWER, id, obj.getUserVoter(), obj.getVote());
+		if (delta == 0) {
+			return ResponseEntity.status(400).build();
 		}
-	
-		answerRepository.save(answerToVote);
+		contentCache.answerVoted(id, delta);
 		return ResponseEntity.noContent().build();		
 	}
 	
@@ -264,8 +254,11 @@ public class AnswerService{
 		
 		InputChecker.checkOptionalIsEmpty(answerOptional);
 		
-		answerVoteService.deleteByEntity(answerOptional.get());	
+		voteService.deleteByEntity(VoteTarget.ANSWER, id);
 		answerRepository.deleteById(id);
+		contentCache.answerChanged(id, answerOptional.get().getQuestion().getId());
+		searchIndex.removeAnswer(id);
+		hotQuestionRanker.onAnswered(answerOptional.get().getQuestion().getId(), -1);
 		return ResponseEntity.noContent().build();
 	}
 	
@@ -1,17 +1,26 @@
 package com.cogent.service;
 
 import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 
+import javax.annotation.PostConstruct;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import com.cogent.entity.Chat;
 import com.cogent.exception.InputChecker;
 import com.cogent.repository.ChatRepository;
+import com.cogent.repository.InboxRepository;
+import com.cogent.util.LruCache;
 
 /**
  * Service to connect API Chat-related 
@@ -25,6 +34,21 @@ public class ChatService{
 	@Autowired
 	private ChatRepository chatRepository;
 	
+	/** The JPA InboxEntry Entity Repository, to drop a deleted Chat from inboxes */
+	@Autowired
+	private InboxRepository inboxRepository;
+	
+	@Value("${doConnect.app.cache.maxChats:10000}")
+	private int maxChats;
+	
+	/** The two Users of each Chat by Chat id */
+	private LruCache<Long, List<String>> participantCache;
+	
+	@PostConstruct
+	public void init() {
+		participantCache = new LruCache<>("chatParticipants", maxChats, Long.MAX_VALUE / 2);
+	}
+	
 	/**
 	 * Service Method to request saving a 
 	 * Chat Entity given
@@ -95,20 +119,107 @@ public class ChatService{
 	 * all Message Entities filtered by users
 	 * through the JPARepository 
 	 * 
-	 * @param messageTopic the string to filter by
-	 * @return list of Message entities
+	 * @param userA one of the Users
+	 * @param userB the other User, in either order
+	 * @return Optional Object with the Chat of both Users if found or Null
 	 * 
-	 * @see com.cogent.repository.MessageRepository#findByChat(Chat)
+	 * @see com.cogent.repository.ChatRepository#findByPairKey(String)
 	 * @since 1.0
 	 */
 	public Optional<Chat> getByUsers(String userA, String userB){
 		InputChecker.checkObjectIsNull(userA);
 		InputChecker.checkObjectIsNull(userB);
-		Optional<Chat> chatOptional = chatRepository.findByUserAAndUserB(userA, userB);
-		if (chatOptional.isEmpty()) {
-			return chatRepository.findByUserAAndUserB(userB, userA);
+		return chatRepository.findByPairKey(Chat.pairKey(userA, userB));
+	}
+	
+	/**
+	 * Service Method to find the id of the Chat between
+	 * two Users, creating the Chat if there is none, in
+	 * one statement so concurrent first messages share a Chat
+	 * 
+	 * @param userA the first User, kept as userA if the Chat is created
+	 * @param userB the second User
+	 * @return the id of the Chat
+	 * 
+	 * @see com.cogent.repository.ChatRepository#upsertChat(String, String, String)
+	 * @since 1.0
+	 */
+	@Transactional
+	public Long resolveId(String userA, String userB) {
+		InputChecker.checkObjectIsNull(userA);
+		InputChecker.checkObjectIsNull(userB);
+		chatRepository.upsertChat(userA, userB, Chat.pairKey(userA, userB));
+		return chatRepository.lastInsertId();
+	}
+	
+	/**
+	 * Service Method to take the next count message sequence
+	 * numbers of a Chat, must run in the transaction saving
+	 * the Messages
+	 * 
+	 * @param id the unique id of the Chat
+	 * @param count how many numbers to take, at least 1
+	 * @return the last sequence number taken, the first is count - 1 lower
+	 * @throws NoSuchElementException if there is no Chat with this id
+	 * 
+	 * @see com.cogent.repository.ChatRepository#takeSeqs(Long, int)
+	 * @since 1.0
+	 */
+	@Transactional
+	public Long takeSeqs(Long id, int count) throws NoSuchElementException {
+		if (chatRepository.takeSeqs(id, count) == 0) {
+			throw new NoSuchElementException("No chat " + id);
 		}
-		return chatOptional;
+		return chatRepository.lastInsertId();
+	}
+	
+	/**
+	 * Service Method to get the two Users of a Chat, cached
+	 * since the Users of a Chat never change
+	 * 
+	 * @param id the unique id of the Chat
+	 * @return userA and userB, empty if there is no such Chat
+	 * 
+	 * @see org.springframework.data.jpa.repository.CrudRepository#findById(Id)
+	 * @since 1.0
+	 */
+	public List<String> getParticipants(Long id) {
+		List<String> participants = participantCache.get(id, key -> chatRepository.findById(key)
+				.map(chat -> Arrays.asList(chat.getUserA(), chat.getUserB()))
+				.orElse(null));
+		return participants == null ? Collections.<String>emptyList() : participants;
+	}
+	
+	/**
+	 * Service Method to check that a User is one of the two
+	 * Users of a Chat, hiding the Chats of other Users as if
+	 * they did not exist
+	 * 
+	 * @param id the unique id of the Chat
+	 * @param userName the User to check
+	 * @throws NoSuchElementException if there is no such Chat or it is not the User's
+	 * 
+	 * @see #getParticipants(Long)
+	 * @since 1.0
+	 */
+	public void checkParticipant(Long id, String userName) throws NoSuchElementException {
+		if (!getParticipants(id).contains(userName)) {
+			throw new NoSuchElementException("No chat " + id);
+		}
+	}
+	
+	/**
+	 * Service Method to get a Chat by id without loading it,
+	 * for setting the Chat of a new Message
+	 * 
+	 * @param id the unique id of the Chat
+	 * @return a reference to the Chat
+	 * 
+	 * @see org.springframework.data.jpa.repository.JpaRepository#getReferenceById(Id)
+	 * @since 1.0
+	 */
+	public Chat getReference(Long id) {
+		return chatRepository.getReferenceById(id);
 	}
 	
 	/**
@@ -147,14 +258,18 @@ public class ChatService{
 	 * @see org.springframework.http.ResponseEntity.HeadersBuilder#build()
 	 * @see org.springframework.http.ResponseEntity.noContent()
 	 * @see org.springframework.data.repository.CrudRepository.deleteById(Integer id)
+	 * @see com.cogent.repository.InboxRepository#deleteByChatId(Long)
 	 * @since 1.0
 	 */
+	@Transactional
 	public ResponseEntity<String> delete(Long id) {
 		Optional<Chat> chatOptional = chatRepository.findById(id);
 		
 		InputChecker.checkOptionalIsEmpty(chatOptional);
 		
+		inboxRepository.deleteByChatId(id);
 		chatRepository.deleteById(id);
+		participantCache.invalidate(id);
 		return ResponseEntity.noContent().build();
 	}
 	
@@ -0,0 +1,129 @@
+package com.cogent.service;
+
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cogent.entity.CursorPage;
+import com.cogent.entity.InboxEntry;
+import com.cogent.entity.InboxId;
+import com.cogent.entity.Message;
+import com.cogent.repository.InboxRepository;
+import com.cogent.util.Cursor;
+
+/**
+ * Service to keep each User's inbox, the list of their
+ * Chats with the latest Message, in step with new Messages
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@Service
+public class InboxService {
+	private static final Logger logger = LoggerFactory.getLogger(InboxService.class);
+	
+	/** The JPA InboxEntry Entity Repository to modify SQL */
+	@Autowired
+	private InboxRepository inboxRepository;
+	
+	/**
+	 * Service Method to point the inbox entries of both Users of a
+	 * Chat at its newest Messages, must run in the transaction that
+	 * saves the Messages so the inbox never shows a Message that is
+	 * rolled back. The Chat row locked for the Messages' seqs also
+	 * orders these updates, so an entry never goes back to an older
+	 * Message.
+	 * 
+	 * @param chatId the unique id of the Chat
+	 * @param participants the two Users of the Chat
+	 * @param messages the Messages just saved in the Chat, with their ids, in seq order
+	 * 
+	 * @see com.cogent.repository.InboxRepository#upsertEntry(String, Long, String, Long, long, long, String, String, String)
+	 * @since 1.0
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void record(Long chatId, List<String> participants, List<Message> messages) {
+		Message last = messages.get(messages.size() - 1);
+		String snippet = InboxEntry.snippet(last.getMessageText());
+		for (int i = 0; i < 2; i++) {
+			String userName = participants.get(i);
+			String peer = participants.get(1 - i);
+			/* A sender has read everything up to their own latest Message */
+			long readSeq = 0;
+			for (Message message : messages) {
+				if (userName.equals(message.getFromUser())) {
+					readSeq = message.getSeq();
+				}
+			}
+			inboxRepository.upsertEntry(userName, chatId, peer, last.getId(), last.getSeq(), readSeq,
+					last.getFromUser(), snippet, last.getDatetime());
+		}
+	}
+	
+	/**
+	 * Service Method to move a batch of read marks forward in
+	 * one transaction, marks of Chats that are gone are dropped
+	 * 
+	 * @param marks the highest seq read by each User in each Chat
+	 * 
+	 * @see com.cogent.repository.InboxRepository#advanceReadSeq(String, Long, long)
+	 * @since 1.0
+	 */
+	@Transactional
+	public void applyReadMarks(Map<InboxId, Long> marks) {
+		for (Map.Entry<InboxId, Long> mark : marks.entrySet()) {
+			inboxRepository.advanceReadSeq(mark.getKey().getUserName(), mark.getKey().getChatId(), mark.getValue());
+		}
+	}
+	
+	/**
+	 * Service Method to request one page of a User's inbox,
+	 * the Chat with the latest Message first
+	 * 
+	 * @param userName the User whose inbox to read
+	 * @param cursor the next cursor of the previous page, null for the first page
+	 * @param limit the page size, clamped to Cursor.MAX_LIMIT
+	 * @return page of inbox entries and the cursor for the next page
+	 * @throws NumberFormatException if the cursor is not valid
+	 * 
+	 * @see com.cogent.repository.InboxRepository#findPageBefore(String, Long, org.springframework.data.domain.Pageable)
+	 * @see com.cogent.util.Cursor
+	 * @since 1.0
+	 */
+	public CursorPage<InboxEntry> getInbox(String userName, String cursor, Integer limit) 
+			throws NumberFormatException {
+		int pageSize = Cursor.clampLimit(limit);
+		Long key = Cursor.decode(cursor);
+		if (key == null) {
+			key = Long.MAX_VALUE;
+		}
+		/* Fetch one extra row to know whether there is a next page */
+		List<InboxEntry> rows = inboxRepository.findPageBefore(userName, key, PageRequest.of(0, pageSize + 1));
+		return CursorPage.of(rows, pageSize, InboxEntry::getLastMessageId);
+	}
+	
+	/**
+	 * Creates the inbox entries missing for Chats whose Messages
+	 * were written without going through saveMessage, such as
+	 * the seed data or Messages from before the inbox existed
+	 * 
+	 * @since 1.0
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Transactional
+	public void backfill() {
+		int created = inboxRepository.backfill(InboxEntry.SNIPPET_LENGTH);
+		if (created > 0) {
+			logger.info("Created {} missing inbox entries", created);
+		}
+	}
+}
@@ -2,18 +2,30 @@ package com.cogent.service;
 
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import com.cogent.entity.Chat;
 import com.cogent.entity.Message;
+import com.cogent.entity.MessagePage;
 import com.cogent.exception.InputChecker;
+import com.cogent.exception.ServerBusyException;
+import com.cogent.message.MessagePipeline;
+import com.cogent.realtime.MessageHub;
 import com.cogent.repository.MessageRepository;
+import com.cogent.util.Cursor;
 
 /**
  * Service to connect API Message-related 
@@ -30,41 +42,53 @@ public class MessageService{
 	/** Service to get questions */
 	@Autowired
 	private ChatService chatService;
+	
+	/** Registry of push connections to send new Messages to */
+	@Autowired
+	private MessageHub messageHub;
+	
+	/** Writer batching new Messages into group commits */
+	@Autowired
+	private MessagePipeline messagePipeline;
 
 	/**
 	 * Service Method to request saving a 
 	 * Message Entity given
-	 * through the JPARepository 
+	 * through the MessagePipeline, which writes it
+	 * in a batch with other Messages sent meanwhile.
+	 * The sender must be one of the Users of the Chat
+	 * and is recorded as fromUser, whatever the Message says
 	 * 
 	 * @param message the message to save in the database
-	 * @return ResponseEntity with HTTP 201 response with URI location encoded
+	 * @param sender the UserName of the signed-in User sending it
+	 * @return ResponseEntity with HTTP 201 response with URI location encoded, once committed
+	 * @throws NoSuchElementException if the Message names a Chat that does not exist or is not the sender's
+	 * @throws ServerBusyException if too many Messages are waiting to be written
 	 * 
-	 * @see org.springframework.data.jpa.repository.CrudRepository#count()
-	 * @see org.springframework.data.jpa.repository.CrudRepository#save(S)
+	 * @see com.cogent.message.MessagePipeline#submit(Message, Long, String, String)
 	 * @see org.springframework.http.ResponseEntity#created(URI)
 	 * @see org.springframework.http.ResponseEntity.HeadersBuilder#build()
 	 * @since 1.0
 	 */
-	public ResponseEntity<String> saveMessage(Message message) {
-		/* Find if the these two Users already have a chat object together */
-		Optional<Chat> chatOptional = chatService.getAllByIDOrUsers(
-				message.getChat().getId(), message.getChat().getUserA(), message.getChat().getUserB());
-		Chat chat;
-		/* If nothing is found, create a new chat object between two users and register it */
-		if (chatOptional.isEmpty()) {
-			chat = new Chat(null, message.getChat().getUserA(),
-					message.getChat().getUserB(), new ArrayList<Message>());
-			chatService.saveChat(chat);
+	public CompletableFuture<ResponseEntity<String>> saveMessage(Message message, String sender) 
+			throws NoSuchElementException, ServerBusyException {
+		InputChecker.checkObjectIsNull(message.getChat());
+		Long chatId = message.getChat().getId();
+		if (chatId == null) {
+			InputChecker.checkObjectIsNull(message.getChat().getUserA());
+			InputChecker.checkObjectIsNull(message.getChat().getUserB());
+			InputChecker.checkIsFound(sender.equals(message.getChat().getUserA()) 
+					|| sender.equals(message.getChat().getUserB()));
 		} else {
-			chat = chatOptional.get();
+			chatService.checkParticipant(chatId, sender);
 		}
+		message.setFromUser(sender);
+		/* The request is gone by the time the batch commits, build the location now */
+		UriComponentsBuilder location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}");
 		
-		message.setChat(chat);
-		Message messageSaved = messageRepository.save(message);
-		URI location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
-				.buildAndExpand(messageSaved.getId()).toUri();
-		
-		return ResponseEntity.created(location).build();
+		return messagePipeline.submit(message, chatId, message.getChat().getUserA(), message.getChat().getUserB())
+				.thenApply(messageSaved -> ResponseEntity.created(
+						location.buildAndExpand(messageSaved.getId()).toUri()).<String>build());
 	}
 	
 	/**
@@ -112,6 +136,80 @@ public class MessageService{
 		return (List<Message>) messageRepository.findByChat(chat);
 	}
 	
+	/**
+	 * Service Method to request one page of a Chat's
+	 * history, the latest Messages unless a cursor is given
+	 * 
+	 * @param chatId the unique id of the Chat
+	 * @param before only Messages with a lower seq, paging back in time
+	 * @param after only Messages with a higher seq, paging forward, ignored if before is given
+	 * @param limit the page size, clamped to Cursor.MAX_LIMIT
+	 * @return the page, oldest Message first
+	 * 
+	 * @see com.cogent.repository.MessageRepository#findLatest(Long, Pageable)
+	 * @see com.cogent.repository.MessageRepository#findBefore(Long, Long, Pageable)
+	 * @see com.cogent.repository.MessageRepository#findAfter(Long, Long, Pageable)
+	 * @since 1.0
+	 */
+	public MessagePage getHistory(Long chatId, Long before, Long after, Integer limit) {
+		int pageSize = Cursor.clampLimit(limit);
+		/* Fetch one row more than the page to learn if there is another page */
+		Pageable page = PageRequest.of(0, pageSize + 1);
+		List<Message> rows;
+		if (before != null) {
+			rows = messageRepository.findBefore(chatId, before, page);
+		} else if (after != null) {
+			rows = messageRepository.findAfter(chatId, after, page);
+		} else {
+			rows = messageRepository.findLatest(chatId, page);
+		}
+		
+		boolean more = rows.size() > pageSize;
+		List<Message> items = new ArrayList<>(rows.subList(0, Math.min(pageSize, rows.size())));
+		if (before != null || after == null) {
+			Collections.reverse(items);
+		}
+		return new MessagePage(items, more);
+	}
+	
+	/**
+	 * Service Method to wait for Messages of a Chat after a
+	 * sequence number without holding a request thread. The
+	 * result is set at once if there already are such Messages,
+	 * as soon as one is committed otherwise, or to an empty
+	 * page when the wait is over.
+	 * 
+	 * @param chatId the unique id of the Chat
+	 * @param after only Messages with a higher seq
+	 * @param limit the page size, clamped to Cursor.MAX_LIMIT
+	 * @param waitMillis how long to wait for a Message
+	 * @return the page to be, oldest Message first
+	 * 
+	 * @see com.cogent.realtime.MessageHub#watch(Long, Runnable)
+	 * @since 1.0
+	 */
+	public DeferredResult<MessagePage> waitForHistory(Long chatId, Long after, Integer limit, long waitMillis) {
+		DeferredResult<MessagePage> result = new DeferredResult<>(waitMillis,
+				() -> new MessagePage(Collections.<Message>emptyList(), false));
+		Runnable watcher = new Runnable() {
+			@Override
+			public void run() {
+				if (result.isSetOrExpired()) {
+					return;
+				}
+				/* Watch again before reading, in case this read finds nothing new */
+				messageHub.watch(chatId, this);
+				MessagePage page = getHistory(chatId, null, after, limit);
+				if (!page.getItems().isEmpty()) {
+					result.setResult(page);
+				}
+			}
+		};
+		result.onCompletion(() -> messageHub.unwatch(chatId, watcher));
+		watcher.run();
+		return result;
+	}
+	
 	/**
 	 * Service Method to request deletion of a 
 	 * Message Entity
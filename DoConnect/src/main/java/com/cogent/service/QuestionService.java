@@ -5,17 +5,25 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.cogent.cache.ContentCache;
+import com.cogent.entity.CursorPage;
 import com.cogent.entity.Question;
 import com.cogent.entity.QuestionDTO;
-import com.cogent.entity.QuestionVote;
+import com.cogent.entity.QuestionSummary;
 import com.cogent.exception.InputChecker;
 import com.cogent.mapper.QuestionMapper;
+import com.cogent.ranking.HotQuestionRanker;
 import com.cogent.repository.QuestionRepository;
+import com.cogent.search.SearchIndex;
+import com.cogent.util.Cursor;
 import com.cogent.util.Time;
+import com.cogent.vote.VoteTarget;
 
 /**
  * Service to connect API Question-related 
@@ -35,7 +43,19 @@ public class QuestionService{
 	
 	/** Service to maintain voting */
 	@Autowired
-	private QuestionVoteService questionVoteService;
+	private VoteService voteService;
+	
+	/** Read-through cache of Questions and Answers */
+	@Autowired
+	private ContentCache contentCache;
+	
+	/** Full-text index kept current with every change */
+	@Autowired
+	private SearchIndex searchIndex;
+	
+	/** Hot rankings kept current with every change */
+	@Autowired
+	private HotQuestionRanker hotQuestionRanker;
 
 	/**
 	 * Service Method to request saving a 
@@ -54,6 +74,8 @@ public class QuestionService{
 	public ResponseEntity<String> saveQuestion(Question question) {
 		question.setDatetime(Time.getTimeNow());
 		Question questionSaved = questionRepository.save(question);
+		searchIndex.indexQuestion(questionSaved);
+		hotQuestionRanker.onCreated(questionSaved);
 		URI location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
 				.buildAndExpand(questionSaved.getId()).toUri();
 		
@@ -63,16 +85,18 @@ public class QuestionService{
 	/**
 	 * Service Method to return a single
 	 * Question Entity via id given 
-	 * through the JPARepository 
+	 * through the ContentCache, loaded
+	 * through the JPARepository on a miss
 	 * 
 	 * @param id the unique id to search for
 	 * @return Optional Object with a Question Entity if found or Null
 	 * 
+	 * @see com.cogent.cache.ContentCache#getQuestion(Long, java.util.function.Function)
 	 * @see org.springframework.data.jpa.repository.CrudRepository#findById(Id)
 	 * @since 1.0
 	 */
 	public Optional<Question> get(Long id){
-		return questionRepository.findById(id);
+		return Optional.ofNullable(contentCache.getQuestion(id, key -> questionRepository.findById(key).orElse(null)));
 	}
 
 	/**
@@ -119,6 +143,54 @@ public class QuestionService{
 		return (List<Question>) questionRepository.findByStatusEquals(status);
 	}
 	
+	/**
+	 * Service Method to request one page of the
+	 * Question feed, optionally filtered by status or topic,
+	 * through the JPARepository 
+	 * 
+	 * Pages are keyed on the id column so every page is a
+	 * bounded index range scan no matter how deep the client
+	 * scrolls. Ids are handed out in creation order, so
+	 * sorting by id is also sorting by creation time.
+	 * 
+	 * @param topic the topic to filter by, may be null
+	 * @param status the status to filter by, takes precedence over topic, may be null
+	 * @param cursor the next cursor of the previous page, null for the first page
+	 * @param limit the page size, clamped to Cursor.MAX_LIMIT
+	 * @param oldestFirst true to walk the feed from the oldest Question
+	 * @return page of Question summaries and the cursor for the next page
+	 * @throws NumberFormatException if the cursor is not valid
+	 * 
+	 * @see com.cogent.repository.QuestionRepository#findSummariesBefore(Long, Pageable)
+	 * @see com.cogent.repository.QuestionRepository#findSummariesByTopicBefore(String, Long, Pageable)
+	 * @see com.cogent.repository.QuestionRepository#findSummariesByStatusBefore(String, Long, Pageable)
+	 * @see com.cogent.util.Cursor
+	 * @since 1.0
+	 */
+	public CursorPage<QuestionSummary> getFeed(String topic, String status, String cursor, 
+			Integer limit, boolean oldestFirst) {
+		int pageSize = Cursor.clampLimit(limit);
+		Long key = Cursor.decode(cursor);
+		if (key == null) {
+			key = oldestFirst ? 0L : Long.MAX_VALUE;
+		}
+		/* Fetch one extra row to know whether there is a next page */
+		Pageable page = PageRequest.of(0, pageSize + 1);
+		
+		List<QuestionSummary> rows;
+		if (status != null) {
+			rows = oldestFirst ? questionRepository.findSummariesByStatusAfter(status, key, page)
+					: questionRepository.findSummariesByStatusBefore(status, key, page);
+		} else if (topic != null) {
+			rows = oldestFirst ? questionRepository.findSummariesByTopicAfter(topic, key, page)
+					: questionRepository.findSummariesByTopicBefore(topic, key, page);
+		} else {
+			rows = oldestFirst ? questionRepository.findSummariesAfter(key, page)
+					: questionRepository.findSummariesBefore(key, page);
+		}
+		return CursorPage.of(rows, pageSize, QuestionSummary::getId);
+	}
+	
 	/**
 	 * Service Method to request update a 
 	 * Question Entity, given an existing ID
@@ -150,6 +222,9 @@ public class QuestionService{
 		Question questionToUpdate = questionOptional.get();
 		mapper.updateQuestion(obj, questionToUpdate);
 		questionRepository.save(questionToUpdate);
+		contentCache.questionChanged(id);
+		searchIndex.indexQuestion(questionToUpdate);
+		hotQuestionRanker.onUpdated(questionToUpdate);
 		
 
 		return ResponseEntity.noContent().build();		
@@ -158,75 +233,41 @@ public class QuestionService{
 	/**
 	 * Service Method to request update a 
 	 * Question Entity votes, given an existing ID
-	 * through the JPARepository 
+	 * through the VoteService, the vote is journaled and
+	 * acknowledged immediately and reaches the database 
+	 * with the next batch
 	 * 
-	 * @param question the question to save in the database
+	 * @param obj the DTO holding the voter and the vote
 	 * @param id the unique id to search for
 	 * @return ResponseEntity with HTTP 204 response on success 
 	 * 			HTTP 404 if id not found,
-	 * 			HTTP 406 if QuestionDTO is null,
+	 * 			HTTP 404 if the voter is not a User,
+	 * 			HTTP 400 if QuestionDTO, voter or vote is invalid,
 	 * 			HTTP 400 if user has already voted
 	 * 
-	 * @see org.springframework.data.repository.CrudRepository.findById(Integer id)
-	 * @see com.cogent.exception.InputChecker#checkOptionalIsEmpty(Optional)
+	 * @see org.springframework.data.repository.CrudRepository#existsById(Object)
+	 * @see com.cogent.exception.InputChecker#checkIsFound(boolean)
 	 * @see com.cogent.exception.InputChecker#checkObjectIsNull(Object)
-	 * @see com.cogent.entity.QuestionDTO
-	 * @see org.springframework.http.ResponseEntity.HeadersBuilder#build()
-	 * @see org.springframework.http.ResponseEntity.noContent()
-	 * @see org.springframework.data.jpa.repository.CrudRepository#save(S)
+	 * @see com.cogent.exception.InputChecker#checkVoteIsValid(int)
+	 * @see com.cogent.service.VoteService#vote(VoteTarget, Long, String, int)
 	 * @since 1.0
 	 */
 	public ResponseEntity<String> vote(QuestionDTO obj, Long id) {
-		Optional<Question> questionOptional = questionRepository.findById(id);
-
-		InputChecker.checkOptionalIsEmpty(questionOptional);
 		InputChecker.checkObjectIsNull(obj);
-		
-		Question questionToVote = questionOptional.get();
-		InputChecker.checkObjectIsNull(questionToVote.getVotes());
 		InputChecker.checkObjectIsNull(obj.getUserVoter());
+		InputChecker.checkVoteIsValid(obj.getVote());
+		InputChecker.checkIsFound(questionRepository.existsById(id));
 		
-		Optional<QuestionVote> questionVoteOptional = 
-				questionVoteService.getByQuestionUserName(questionToVote, obj.getUserVoter());
-		/* Add if vote if does not exist, change tally */
-		if (!questionVoteOptional.isPresent() && obj.getVote() != 0) {
-			System.out.println("questionVoteOptional == null");
-			
-			QuestionVote newQuestionVote = 
-					new QuestionVote(null, obj.getUserVoter(), obj.getVote(), questionToVote);
-			questionVoteService.saveQuestionVote(newQuestionVote);
-			questionToVote.setVoteTally(questionToVote.getVoteTally() + obj.getVote());
-		} else {
-			QuestionVote questionVoteLog = questionVoteOptional.get();
-			/* Delete and change tally if the new vote is 0 */
-			if (questionVoteOptional.isPresent() && obj.getVote() == 0) {
-				questionToVote.setVoteTally(questionToVote.getVoteTally() - questionVoteLog.getVote());
-				questionVoteLog.setVote(0);
-				questionToVote.getVotes().remove(questionVoteLog);
-			} 
-			/* 
-			 * If the Voter already voted for this entity 
-			 * and their results are changed, 
-			 * change the log and the tally
-			 */
-			else if (questionVoteLog.getVote() != obj.getVote()) {
-				questionToVote.setVoteTally(questionToVote.getVoteTally() + (obj.getVote() * 2));
-				questionVoteService.update(new QuestionVote(questionVoteLog.getId(), null, obj.getVote(), questionToVote)
-						,questionVoteLog.getId());
-			}
-			/*
-			 * If the Voter already voted for this entity 
-			 * and their results are the same
-			 * do not do anything and return HTTP 400
-			 */
-			else {
-				return ResponseEntity.status(400).build();
-				//TODO: Logic Working as intended but sends 204
-			}	
-			
+		/*
+		 * If the Voter already voted for this entity 
+		 * and their results are the same
+		 * do not do anything and return HTTP 400
+		 */
+		int delta = voteService.vote(VoteTarget.QUESTION, id, obj.getUserVoter(), obj.getVote());
+		if (delta == 0) {
+			return ResponseEntity.status(400).build();
 		}
-	
-		questionRepository.save(questionToVote);
+		contentCache.questionVoted(id, delta);
 		return ResponseEntity.noContent().build();		
 	}
 	
@@ -253,8 +294,11 @@ public class QuestionService{
 		
 		InputChecker.checkOptionalIsEmpty(questionOptional);
 		
-		questionVoteService.deleteByEntity(questionOptional.get());	
+		voteService.deleteByEntity(VoteTarget.QUESTION, id);
 		questionRepository.deleteById(id);
+		contentCache.questionChanged(id);
+		searchIndex.removeQuestion(id);
+		hotQuestionRanker.onDeleted(id);
 		return ResponseEntity.noContent().build();
 	}
 	
@@ -0,0 +1,102 @@
+package com.cogent.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.cogent.entity.InboxEntry;
+import com.cogent.entity.InboxId;
+
+/**
+ * Service to record how far each User has read each Chat
+ * 
+ * Read state is one high-water mark per User and Chat, the seq of
+ * the last Message read, kept on the User's inbox entry. Acks only
+ * raise the mark held in memory, so a client acking every Message
+ * it shows costs one map update each, and the marks are written on
+ * every flush in one transaction. An ack lost in a crash only leaves
+ * a Chat showing unread until the client acks it again.
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@Service
+public class ReadReceiptService {
+	private static final Logger logger = LoggerFactory.getLogger(ReadReceiptService.class);
+	
+	/** Service writing the marks to the inbox */
+	@Autowired
+	private InboxService inboxService;
+	
+	/** Highest seq acked by each User in each Chat since the last flush */
+	private final ConcurrentHashMap<InboxId, Long> pending = new ConcurrentHashMap<>();
+	
+	/**
+	 * Service Method to mark a Chat read up to a Message,
+	 * an ack lower than one already given changes nothing
+	 * 
+	 * @param chatId the unique id of the Chat
+	 * @param userName the User who read it
+	 * @param upTo the seq of the last Message read
+	 * @since 1.0
+	 */
+	public void ack(Long chatId, String userName, long upTo) {
+		if (upTo <= 0) {
+			return;
+		}
+		pending.merge(new InboxId(userName, chatId), upTo, Math::max);
+	}
+	
+	/**
+	 * Service Method to lay read marks not yet flushed over
+	 * inbox entries read from the database, so Users see
+	 * their own acks at once
+	 * 
+	 * @param entries inbox entries of one User, updated in place
+	 * @since 1.0
+	 */
+	public void overlay(List<InboxEntry> entries) {
+		if (pending.isEmpty()) {
+			return;
+		}
+		for (InboxEntry entry : entries) {
+			Long mark = pending.get(new InboxId(entry.getUserName(), entry.getChatId()));
+			if (mark != null && mark > entry.getLastReadSeq()) {
+				entry.setLastReadSeq(Math.min(mark, entry.getLastSeq()));
+			}
+		}
+	}
+	
+	/**
+	 * Function to write every mark acked so far, run on a fixed
+	 * delay and on shutdown. Marks raised while a flush runs stay
+	 * pending for the next one, on failure all of them do.
+	 * 
+	 * @since 1.0
+	 */
+	@Scheduled(fixedDelayString = "${doConnect.app.reads.flushMs:1000}")
+	@PreDestroy
+	public synchronized void flush() {
+		if (pending.isEmpty()) {
+			return;
+		}
+		Map<InboxId, Long> marks = new HashMap<>(pending);
+		try {
+			inboxService.applyReadMarks(marks);
+		} catch (RuntimeException e) {
+			logger.error("Cannot flush {} read mark(s), retrying on next flush: {}", marks.size(), e.getMessage());
+			return;
+		}
+		/* Forget marks that did not move since they were taken */
+		marks.forEach(pending::remove);
+	}
+}
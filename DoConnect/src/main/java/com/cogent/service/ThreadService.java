@@ -0,0 +1,74 @@
+package com.cogent.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.cogent.entity.AnswerSummary;
+import com.cogent.entity.QuestionDetail;
+import com.cogent.entity.QuestionThread;
+import com.cogent.repository.AnswerRepository;
+import com.cogent.repository.QuestionRepository;
+import com.cogent.vote.VoteTarget;
+
+/**
+ * Service to compose a whole Question page, the Question,
+ * its Answers and the caller's votes, from a fixed number
+ * of narrow queries
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@Service
+public class ThreadService {
+	/** The JPA Question Entity Repository to modify SQL */
+	@Autowired
+	private QuestionRepository questionRepository;
+	
+	/** The JPA Answer Entity Repository to modify SQL */
+	@Autowired
+	private AnswerRepository answerRepository;
+	
+	/** Service to read votes */
+	@Autowired
+	private VoteService voteService;
+	
+	/**
+	 * Service Method to return a single
+	 * Question thread via id given 
+	 * 
+	 * Runs two queries for anonymous callers and four for
+	 * signed in callers, regardless of the number of Answers
+	 * 
+	 * @param id the unique id of the Question to search for
+	 * @param voterId id of the caller, null if anonymous
+	 * @return the Question thread
+	 * @throws NoSuchElementException if the Question does not exist
+	 * 
+	 * @see com.cogent.repository.QuestionRepository#findDetailById(Long)
+	 * @see com.cogent.repository.AnswerRepository#findSummariesByQuestionId(Long)
+	 * @see com.cogent.service.VoteService#getVotesByEntityIds(VoteTarget, Collection, Long)
+	 * @since 1.0
+	 */
+	public QuestionThread getThread(Long id, Long voterId) {
+		QuestionDetail question = questionRepository.findDetailById(id).get();
+		List<AnswerSummary> answers = answerRepository.findSummariesByQuestionId(id);
+		
+		Integer questionVote = null;
+		Map<Long, Integer> answerVotes = new HashMap<>();
+		if (voterId != null) {
+			questionVote = voteService.getVotesByEntityIds(VoteTarget.QUESTION, Collections.singleton(id), voterId).get(id);
+			List<Long> answerIds = new ArrayList<>(answers.size());
+			for (AnswerSummary answer : answers) {
+				answerIds.add(answer.getId());
+			}
+			answerVotes = voteService.getVotesByEntityIds(VoteTarget.ANSWER, answerIds, voterId);
+		}
+		return new QuestionThread(question, answers, questionVote, answerVotes);
+	}
+}
@@ -14,6 +14,9 @@ import com.cogent.entity.UserDTO;
 import com.cogent.exception.InputChecker;
 import com.cogent.mapper.UserMapper;
 import com.cogent.repository.UserRepository;
+import com.cogent.security.jwt.JwtUtils;
+import com.cogent.security.service.SignupService;
+import com.cogent.security.service.UserDetailsServiceImpl;
 
 /**
  * Service to connect API User-related 
@@ -30,6 +33,18 @@ public class UserService{
 	/** Mapper to transcribe DTO to Question entity */
 	@Autowired
 	private UserMapper mapper;
+	
+	/** Principal cache to drop changed Users from */
+	@Autowired
+	private UserDetailsServiceImpl userDetailsService;
+	
+	/** Signup prefilter to record taken credentials in */
+	@Autowired
+	private SignupService signupService;
+	
+	/** Issues and revokes the tokens of changed Users */
+	@Autowired
+	private JwtUtils jwtUtils;
 
 	/**
 	 * Service Method to request saving a 
@@ -47,6 +62,8 @@ public class UserService{
 	 */
 	public ResponseEntity<String> saveUser(User user) {
 		User userSaved = userRepository.save(user);
+		userDetailsService.invalidate(userSaved.getUserName());
+		signupService.remember(userSaved.getUserName(), userSaved.getEmail());
 		URI location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
 				.buildAndExpand(userSaved.getId()).toUri();
 		
@@ -139,9 +156,14 @@ public class UserService{
 		InputChecker.checkOptionalIsEmpty(userOptional);
 		InputChecker.checkObjectIsNull(obj);
 		User userToUpdate = userOptional.get();
+		String oldUserName = userToUpdate.getUserName();
 
 		mapper.updateUserFromDto(obj, userToUpdate);
 		userRepository.save(userToUpdate);
+		userDetailsService.invalidate(oldUserName);
+		userDetailsService.invalidate(userToUpdate.getUserName());
+		jwtUtils.revokeUserTokens(oldUserName);
+		signupService.remember(userToUpdate.getUserName(), userToUpdate.getEmail());
 		
 		return ResponseEntity.noContent().build();		
 	}
@@ -168,6 +190,8 @@ public class UserService{
 		InputChecker.checkOptionalIsEmpty(userOptional);
 		
 		userRepository.deleteById(id);
+		userDetailsService.invalidate(userOptional.get().getUserName());
+		jwtUtils.revokeUserTokens(userOptional.get().getUserName());
 		return ResponseEntity.noContent().build();
 	}
 
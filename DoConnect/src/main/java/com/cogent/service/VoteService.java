@@ -0,0 +1,132 @@
+package com.cogent.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cogent.entity.VoteState;
+import com.cogent.exception.InputChecker;
+import com.cogent.ranking.HotQuestionRanker;
+import com.cogent.repository.UserRepository;
+import com.cogent.repository.VoteRepository;
+import com.cogent.vote.VoteAggregator;
+import com.cogent.vote.VoteChange;
+import com.cogent.vote.VoteTarget;
+
+/**
+ * Service to connect Question and Answer voting
+ * to the VoteAggregator and VoteRepository
+ * 
+ * Every kind of entity shares the one votes table,
+ * told apart by VoteTarget.
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@Service
+public class VoteService {
+	@Autowired
+	private VoteRepository voteRepository;
+	
+	@Autowired
+	private UserRepository userRepository;
+	
+	/** Write-behind accumulator holding votes not yet written */
+	@Autowired
+	private VoteAggregator voteAggregator;
+	
+	/** Hot rankings, told about every Question vote */
+	@Autowired
+	private HotQuestionRanker hotQuestionRanker;
+	
+	/**
+	 * Service Method to look up the id
+	 * a voter is stored under
+	 * 
+	 * @param voter the username of the voter
+	 * @return the id of the User
+	 * @throws NoSuchElementException if there is no such User
+	 * 
+	 * @see com.cogent.repository.UserRepository#findIdByUserName(String)
+	 * @see com.cogent.exception.InputChecker#checkOptionalIsEmpty(Optional)
+	 * @since 1.0
+	 */
+	public Long getVoterId(String voter) throws NoSuchElementException {
+		Optional<Long> voterId = userRepository.findIdByUserName(voter);
+		InputChecker.checkOptionalIsEmpty(voterId);
+		return voterId.get();
+	}
+	
+	/**
+	 * Service Method to record a vote through the VoteAggregator
+	 * 
+	 * @param target kind of entity voted on
+	 * @param entityId the id of the entity
+	 * @param voter the username of the voter
+	 * @param vote 1 = upvote, 0 = remove vote, -1 = downvote
+	 * @return the change to the entity's tally, 0 if the voter already has this vote
+	 * @throws NoSuchElementException if there is no such User
+	 * 
+	 * @see com.cogent.vote.VoteAggregator#submit(VoteTarget, Long, Long, int)
+	 * @see com.cogent.ranking.HotQuestionRanker#onVoted(Long, int, long)
+	 * @since 1.0
+	 */
+	public int vote(VoteTarget target, Long entityId, String voter, int vote) throws NoSuchElementException {
+		VoteChange change = voteAggregator.submit(target, entityId, getVoterId(voter), vote);
+		if (change.getDelta() != 0 && target == VoteTarget.QUESTION) {
+			hotQuestionRanker.onVoted(entityId, change.getDelta(), change.getEpoch());
+		}
+		return change.getDelta();
+	}
+	
+	/**
+	 * Service Method to request
+	 * the votes a voter cast on a set of entities
+	 * through the JPARepository, including votes 
+	 * acknowledged but not yet written by the VoteAggregator
+	 * 
+	 * @param target kind of entity
+	 * @param entityIds the ids of the entities to look up
+	 * @param voterId the id of the voter
+	 * @return map of entity id to vote, entities without a vote are left out
+	 * 
+	 * @see com.cogent.repository.VoteRepository#findStatesByEntityIdsAndVoterId(byte, Collection, Long)
+	 * @see com.cogent.vote.VoteAggregator#overlay(VoteTarget, Collection, Long, Map)
+	 * @since 1.0
+	 */
+	public Map<Long, Integer> getVotesByEntityIds(VoteTarget target, Collection<Long> entityIds, Long voterId){
+		Map<Long, Integer> votes = new HashMap<>();
+		if (entityIds.isEmpty()) {
+			return votes;
+		}
+		for (VoteState state : voteRepository.findStatesByEntityIdsAndVoterId(target.getCode(), entityIds, voterId)) {
+			votes.put(state.getEntityId(), state.getVote());
+		}
+		voteAggregator.overlay(target, entityIds, voterId, votes);
+		return votes;
+	}
+	
+	/**
+	 * Service Method to request deletion of 
+	 * all votes on an entity that is being deleted,
+	 * including votes not yet written
+	 * 
+	 * @param target kind of entity
+	 * @param entityId the id of the entity
+	 * 
+	 * @see com.cogent.vote.VoteAggregator#discard(VoteTarget, Long)
+	 * @see com.cogent.repository.VoteRepository#deleteByEntity(byte, Long)
+	 * @since 1.0
+	 */
+	@Transactional
+	public void deleteByEntity(VoteTarget target, Long entityId) {
+		voteAggregator.discard(target, entityId);
+		voteRepository.deleteByEntity(target.getCode(), entityId);
+	}
+}
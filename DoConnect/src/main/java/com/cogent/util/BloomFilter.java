@@ -0,0 +1,103 @@
+package com.cogent.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter of strings
+ *
+ * Answers whether a string may have been added. A false answer is
+ * certain, a true answer is wrong with about the false positive rate
+ * the filter was sized for, as long as no more strings than expected
+ * are added. Strings can never be removed.
+ *
+ * @author michaelmiranda
+ * @since 1.0
+ */
+public class BloomFilter {
+	/** Bits of the filter, 64 per word */
+	private final AtomicLongArray words;
+
+	/** Number of bits */
+	private final long bits;
+
+	/** Number of bits set per string */
+	private final int hashes;
+
+	/**
+	 * Sizes a filter for the given number of strings and false positive rate
+	 *
+	 * @param expected number of strings expected to be added
+	 * @param falsePositiveRate wanted rate of wrong true answers, between 0 and 1
+	 * @since 1.0
+	 */
+	public BloomFilter(long expected, double falsePositiveRate) {
+		long n = Math.max(1, expected);
+		double p = Math.min(Math.max(falsePositiveRate, 1e-9), 0.5);
+		long m = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+		int words = (int) Math.min(Integer.MAX_VALUE, Math.max(1, (m + 63) / 64));
+		this.words = new AtomicLongArray(words);
+		this.bits = words * 64L;
+		this.hashes = (int) Math.max(1, Math.round((double) bits / n * Math.log(2)));
+	}
+
+	/**
+	 * Function to add a string
+	 *
+	 * @param value the string to add
+	 * @since 1.0
+	 */
+	public void add(String value) {
+		long hash = hash(value);
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		for (int i = 1; i <= hashes; i++) {
+			long bit = index(h1 + i * h2);
+			int word = (int) (bit >>> 6);
+			long mask = 1L << bit;
+			long old;
+			while (((old = words.get(word)) & mask) == 0 && !words.compareAndSet(word, old, old | mask)) {
+				/* another bit of the word changed, retry */
+			}
+		}
+	}
+
+	/**
+	 * Function to test for a string
+	 *
+	 * @param value the string to look for
+	 * @return false if the string was certainly never added
+	 * @since 1.0
+	 */
+	public boolean mightContain(String value) {
+		long hash = hash(value);
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		for (int i = 1; i <= hashes; i++) {
+			long bit = index(h1 + i * h2);
+			if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private long index(int combined) {
+		return (combined & 0x7fffffffL) % bits;
+	}
+
+	/** 64-bit FNV-1a of the UTF-8 bytes, finished with a MurmurHash3 mix */
+	private static long hash(String value) {
+		long hash = 0xcbf29ce484222325L;
+		for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+			hash ^= b & 0xff;
+			hash *= 0x100000001b3L;
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+}
@@ -0,0 +1,66 @@
+package com.cogent.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Utility Class to encode and decode the opaque
+ * keyset cursors handed out by paginated end points
+ *
+ * @author michaelmiranda
+ * @since 1.0
+ */
+public class Cursor {
+	/** Page size used when the client does not ask for one */
+	public static final int DEFAULT_LIMIT = 20;
+
+	/** Largest page size a client may ask for */
+	public static final int MAX_LIMIT = 100;
+
+	/**
+	 * Helper function to turn the last seen key into a cursor
+	 * @param key the id of the last row on the page
+	 * @return url-safe opaque cursor string
+	 * @since 1.0
+	 */
+	public static String encode(Long key) {
+		if (key == null) {
+			return null;
+		}
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString(key.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Helper function to read the key back out of a cursor
+	 * @param cursor the cursor given by the client, may be null
+	 * @return the key or null if no cursor was given
+	 *
+	 * @throws NumberFormatException if the cursor was not issued by us
+	 * @see com.cogent.exception.GlobalControllerExceptionHandler#handleNumberFormatException()
+	 * @since 1.0
+	 */
+	public static Long decode(String cursor) throws NumberFormatException {
+		if (cursor == null || cursor.isEmpty()) {
+			return null;
+		}
+		try {
+			return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+		} catch (IllegalArgumentException e) {
+			throw new NumberFormatException("Invalid cursor");
+		}
+	}
+
+	/**
+	 * Helper function to keep a requested page size within bounds
+	 * @param limit the page size given by the client, may be null
+	 * @return a page size between 1 and MAX_LIMIT
+	 * @since 1.0
+	 */
+	public static int clampLimit(Integer limit) {
+		if (limit == null || limit < 1) {
+			return DEFAULT_LIMIT;
+		}
+		return Math.min(limit, MAX_LIMIT);
+	}
+}
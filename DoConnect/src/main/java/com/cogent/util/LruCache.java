@@ -0,0 +1,208 @@
+package com.cogent.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import com.cogent.entity.CacheStats;
+
+/**
+ * Bounded in-memory cache evicting the least recently
+ * used entry once full and any entry older than its
+ * time to live
+ *
+ * Loads run outside the cache lock. Every invalidation or
+ * patch moves the keys it touches to a new generation and a
+ * load started in an older generation is handed to its caller
+ * but not stored, so a read racing a write can never put the
+ * old value back after the write invalidated it. Generations
+ * are kept for a fixed number of key stripes, so a write only
+ * holds back loads of keys sharing its stripe. There is no write
+ * to many keys at once, an owner that needs one finds the keys
+ * through its own index and writes them one by one.
+ *
+ * Concurrent misses on the same key share a single load through
+ * SingleFlight, a write to a key releases its running load so
+ * misses arriving after the write load again.
+ *
+ * An owner keeping its own index of the cached keys can listen
+ * for entries being stored and removed, both are reported under
+ * the cache lock in the order they happen.
+ *
+ * @author michaelmiranda
+ * @since 1.0
+ */
+public class LruCache<K, V> {
+	private final String name;
+
+	private final int maxSize;
+
+	private final long ttlMillis;
+
+	/** Loads running right now, shared by concurrent misses */
+	private final SingleFlight<K, V> flights = new SingleFlight<>();
+
+	/** Entries in access order, least recently used first */
+	private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	/** Number of key generation stripes, a power of two */
+	private static final int STRIPES = 64;
+
+	/** Generation of each stripe of keys, moved on by writes to its keys */
+	private final long[] stripes = new long[STRIPES];
+
+	private long hits;
+
+	private long misses;
+
+	private long evictions;
+
+	private long expirations;
+
+	private long invalidations;
+
+	/** Told of every entry stored */
+	private final BiConsumer<K, V> onStored;
+
+	/** Told of every entry evicted, expired or invalidated */
+	private final BiConsumer<K, V> onRemoved;
+
+	private static class Entry<V> {
+		final V value;
+
+		final long expires;
+
+		Entry(V value, long expires) {
+			this.value = value;
+			this.expires = expires;
+		}
+	}
+
+	/**
+	 * @param name name reported in the statistics
+	 * @param maxSize the largest number of entries to hold
+	 * @param ttlMillis how long an entry may be served after it was loaded
+	 * @since 1.0
+	 */
+	public LruCache(String name, int maxSize, long ttlMillis) {
+		this(name, maxSize, ttlMillis, (key, value) -> { }, (key, value) -> { });
+	}
+
+	/**
+	 * @param name name reported in the statistics
+	 * @param maxSize the largest number of entries to hold
+	 * @param ttlMillis how long an entry may be served after it was loaded
+	 * @param onStored told of every entry stored, under the cache lock
+	 * @param onRemoved told of every entry evicted, expired or invalidated, under the cache lock
+	 * @since 1.0
+	 */
+	public LruCache(String name, int maxSize, long ttlMillis, BiConsumer<K, V> onStored, BiConsumer<K, V> onRemoved) {
+		this.name = name;
+		this.maxSize = maxSize;
+		this.ttlMillis = ttlMillis;
+		this.onStored = onStored;
+		this.onRemoved = onRemoved;
+	}
+
+	/**
+	 * Function to read an entry, loading and storing it on a miss,
+	 * concurrent misses on the same key wait for one load
+	 *
+	 * @param key the key to read
+	 * @param loader loads the value on a miss, a null value is returned but not stored
+	 * @return the cached or loaded value
+	 * @since 1.0
+	 */
+	public V get(K key, Function<K, V> loader) {
+		long loadStripe;
+		synchronized (this) {
+			Entry<V> entry = entries.get(key);
+			if (entry != null) {
+				if (entry.expires > System.currentTimeMillis()) {
+					hits++;
+					return entry.value;
+				}
+				entries.remove(key);
+				onRemoved.accept(key, entry.value);
+				expirations++;
+			}
+			misses++;
+			loadStripe = stripes[stripe(key)];
+		}
+		return flights.load(key, k -> {
+			V value = loader.apply(k);
+			if (value != null) {
+				put(k, value, loadStripe);
+			}
+			return value;
+		});
+	}
+
+	/**
+	 * Function to drop an entry because its data changed
+	 *
+	 * @param key the key to drop
+	 * @since 1.0
+	 */
+	public synchronized void invalidate(K key) {
+		stripes[stripe(key)]++;
+		flights.forget(key);
+		Entry<V> entry = entries.remove(key);
+		if (entry != null) {
+			onRemoved.accept(key, entry.value);
+			invalidations++;
+		}
+	}
+
+	/**
+	 * Function to replace a cached value with a changed copy instead
+	 * of dropping it, the entry keeps its time to live and the old
+	 * value is left untouched for callers still holding it
+	 *
+	 * @param key the key to change
+	 * @param patch returns the changed copy of the value if it is cached
+	 * @since 1.0
+	 */
+	public synchronized void patch(K key, UnaryOperator<V> patch) {
+		stripes[stripe(key)]++;
+		flights.forget(key);
+		Entry<V> entry = entries.get(key);
+		if (entry != null) {
+			entries.put(key, new Entry<V>(patch.apply(entry.value), entry.expires));
+			invalidations++;
+		}
+	}
+
+	/**
+	 * @return the current counters of this cache
+	 * @since 1.0
+	 */
+	public synchronized CacheStats stats() {
+		return new CacheStats(name, entries.size(), maxSize, hits, misses, flights.joined(), evictions, expirations, invalidations);
+	}
+
+	private synchronized void put(K key, V value, long loadStripe) {
+		if (loadStripe != stripes[stripe(key)]) {
+			return;
+		}
+		Entry<V> replaced = entries.put(key, new Entry<V>(value, System.currentTimeMillis() + ttlMillis));
+		if (replaced != null) {
+			onRemoved.accept(key, replaced.value);
+		}
+		onStored.accept(key, value);
+		if (entries.size() > maxSize) {
+			Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+			Map.Entry<K, Entry<V>> evicted = eldest.next();
+			eldest.remove();
+			onRemoved.accept(evicted.getKey(), evicted.getValue().value);
+			evictions++;
+		}
+	}
+
+	private static int stripe(Object key) {
+		return key.hashCode() & (STRIPES - 1);
+	}
+}
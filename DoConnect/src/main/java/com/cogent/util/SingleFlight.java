@@ -0,0 +1,87 @@
+package com.cogent.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Utility Class to coalesce concurrent loads of the same key
+ *
+ * The first caller to miss on a key runs the load, every caller
+ * arriving for that key while it runs waits for the same result
+ * instead of starting its own. Once the load finishes the key is
+ * released and the next caller loads again.
+ *
+ * @author michaelmiranda
+ * @since 1.0
+ */
+public class SingleFlight<K, V> {
+	/** Loads running right now by key */
+	private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+	/** Number of callers that waited for another caller's load */
+	private final LongAdder joined = new LongAdder();
+
+	/**
+	 * Function to load a key, joining a load of the same key already running
+	 *
+	 * @param key the key to load
+	 * @param loader runs the load if none is running
+	 * @return the loaded value, shared by every caller of the same flight
+	 * @throws RuntimeException whatever the loader threw, rethrown to every caller of the flight
+	 * @since 1.0
+	 */
+	public V load(K key, Function<K, V> loader) {
+		CompletableFuture<V> flight = new CompletableFuture<>();
+		CompletableFuture<V> running = inFlight.putIfAbsent(key, flight);
+		if (running != null) {
+			joined.increment();
+			return join(running);
+		}
+		try {
+			V value = loader.apply(key);
+			flight.complete(value);
+			return value;
+		} catch (RuntimeException | Error e) {
+			flight.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, flight);
+		}
+	}
+
+	/**
+	 * Function to stop handing a running load to new callers,
+	 * used when the data it reads has just changed
+	 *
+	 * @param key the key whose load is stale
+	 * @since 1.0
+	 */
+	public void forget(K key) {
+		inFlight.remove(key);
+	}
+
+	/**
+	 * @return the number of callers that waited for another caller's load
+	 * @since 1.0
+	 */
+	public long joined() {
+		return joined.sum();
+	}
+
+	private static <V> V join(CompletableFuture<V> flight) {
+		try {
+			return flight.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw e;
+		}
+	}
+}
@@ -1,14 +1,54 @@
 package com.cogent.util;
 
 import java.time.LocalDateTime;  
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 
 public class Time {
+	/** Format every datetime column is written in */
+	private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
 	
 	public static String getTimeNow() {
 		LocalDateTime datetime1 = LocalDateTime.now();  
-	    DateTimeFormatter format = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");  
-	    String formatDateTime = datetime1.format(format);   
+	    String formatDateTime = datetime1.format(FORMAT);   
 	    return formatDateTime;
 	}
+	
+	/**
+	 * Helper function to read a datetime written by getTimeNow()
+	 * @param datetime the datetime string
+	 * @return seconds since the epoch in the system time zone
+	 * 
+	 * @throws DateTimeParseException if the string is not in the expected format
+	 * @since 1.0
+	 */
+	public static long toEpochSecond(String datetime) throws DateTimeParseException {
+		return LocalDateTime.parse(datetime, FORMAT).atZone(ZoneId.systemDefault()).toEpochSecond();
+	}
+	
+	/**
+	 * Helper function to read a duration given by a client
+	 * @param duration a number of seconds, optionally followed by "s", or of milliseconds followed by "ms"
+	 * @return the duration in milliseconds
+	 * 
+	 * @throws NumberFormatException if the duration cannot be read or is negative
+	 * @see com.cogent.exception.GlobalControllerExceptionHandler#handleNumberFormatException()
+	 * @since 1.0
+	 */
+	public static long toMillis(String duration) throws NumberFormatException {
+		String value = duration.trim();
+		long millis;
+		if (value.endsWith("ms")) {
+			millis = Long.parseLong(value.substring(0, value.length() - 2));
+		} else if (value.endsWith("s")) {
+			millis = Long.parseLong(value.substring(0, value.length() - 1)) * 1000;
+		} else {
+			millis = Long.parseLong(value) * 1000;
+		}
+		if (millis < 0) {
+			throw new NumberFormatException("Negative duration");
+		}
+		return millis;
+	}
 }
@@ -0,0 +1,18 @@
+package com.cogent.vote;
+
+import lombok.Data;
+
+/**
+ * Key of a single voted entity, used to accumulate tallies
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@Data
+public class EntityRef {
+	/** Kind of entity */
+	private final VoteTarget target;
+	
+	/** ID of the Question or Answer */
+	private final Long entityId;
+}
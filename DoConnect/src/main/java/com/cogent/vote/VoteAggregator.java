@@ -0,0 +1,441 @@
+package com.cogent.vote;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Write-behind accumulator for Question and Answer votes
+ *
+ * A vote is checked against the voter's last known vote, written
+ * to the local VoteJournal and acknowledged straight away. The
+ * change it makes to the entity's tally is added to a per-entity
+ * counter. On every flush the pending votes and summed tally
+ * changes are swapped out and written to the database in one
+ * transaction, so a burst of votes on one Question costs one
+ * tally update per flush instead of one row lock per vote.
+ *
+ * Checking and recording a voter's vote is done under one of a
+ * fixed number of stripe locks picked by the voter and entity,
+ * so votes from different voters do not wait on each other. A
+ * voter's stored vote is read from the database before any lock
+ * is taken, so a flush waiting for the rotation lock never waits
+ * on a database read.
+ *
+ * Reads that add the unflushed tally changes to tallies read from
+ * the database run under readSettled, which a flush waits out and
+ * holds up only while it writes its batch. A read that collects
+ * the changes of every entity also starts a new epoch, and every
+ * vote is tagged with the epoch it was submitted in, so whoever
+ * hears of a vote after such a read can tell whether the read
+ * already counted it.
+ *
+ * With doConnect.app.votes.writeBehind off every vote is applied
+ * synchronously by VoteStore#castVote instead.
+ *
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@Component
+public class VoteAggregator {
+	private static final Logger logger = LoggerFactory.getLogger(VoteAggregator.class);
+
+	/** Times a synchronous vote is tried before a lock failure is given up on */
+	private static final int CAST_ATTEMPTS = 3;
+
+	/** Number of stripe locks, a power of two */
+	private static final int STRIPES = 64;
+
+	@Autowired
+	private VoteStore voteStore;
+
+	@Value("${doConnect.app.votes.journalDir}")
+	private String journalDir;
+
+	@Value("${doConnect.app.votes.writeBehind:true}")
+	private boolean writeBehind;
+
+	/** How Hibernate treats the schema at startup, create and create-drop start from empty tables */
+	@Value("${spring.jpa.hibernate.ddl-auto:none}")
+	private String ddlAuto;
+
+	/** Locks serializing votes of the same voter on the same entity */
+	private final Object[] stripes = new Object[STRIPES];
+
+	/** Held shared by voters and exclusively while a batch is swapped out */
+	private final ReentrantReadWriteLock rotation = new ReentrantReadWriteLock();
+
+	/** Held shared by reads that must not overlap a flush, exclusively from a swap until its batch is written */
+	private final ReentrantReadWriteLock settling = new ReentrantReadWriteLock();
+
+	/** Number of reads that collected every unflushed tally change, guarded by rotation */
+	private long epoch;
+
+	/** Latest vote of every voter with a vote not yet known to be in the database */
+	private final ConcurrentHashMap<VoteKey, Integer> ledger = new ConcurrentHashMap<>();
+
+	/** Votes acknowledged since the last swap */
+	private ConcurrentHashMap<VoteKey, Integer> pendingVotes = new ConcurrentHashMap<>();
+
+	/** Tally changes acknowledged since the last swap */
+	private ConcurrentHashMap<EntityRef, LongAdder> pendingTallies = new ConcurrentHashMap<>();
+
+	/** Bumped before votes are dropped from the ledger, tells submit its stored vote may be stale */
+	private final AtomicLong forgotten = new AtomicLong();
+
+	/** Closed journal segments not yet committed to the database */
+	private final List<Path> unflushedSegments = new ArrayList<>();
+
+	private VoteJournal journal;
+
+	public VoteAggregator() {
+		for (int i = 0; i < STRIPES; i++) {
+			stripes[i] = new Object();
+		}
+	}
+
+	/**
+	 * Opens the journal and replays votes acknowledged
+	 * but not committed before the last shutdown. If the
+	 * schema is recreated on every start the entities those
+	 * votes were for are gone, so the leftovers are dropped.
+	 *
+	 * @throws IOException if the journal cannot be opened or read
+	 * @since 1.0
+	 */
+	@PostConstruct
+	public void init() throws IOException {
+		journal = new VoteJournal(Paths.get(journalDir));
+		List<Path> leftover = journal.segments();
+		if (leftover.isEmpty()) {
+			return;
+		}
+		if (schemaRecreated()) {
+			logger.warn("Dropping {} vote journal segment(s), ddl-auto {} recreated the schema", 
+					leftover.size(), ddlAuto);
+		} else {
+			for (Path segment : leftover) {
+				journal.read(segment, (key, vote) -> submit(key.getTarget(), key.getEntityId(), key.getVoterId(), vote));
+			}
+			logger.info("Replayed {} vote journal segment(s)", leftover.size());
+		}
+		journal.delete(leftover);
+	}
+
+	/**
+	 * Function to record a vote, it is acknowledged once it is
+	 * journaled and reaches the database on the next flush,
+	 * or once it is committed if write-behind is off
+	 *
+	 * @param target kind of entity voted on
+	 * @param entityId the id of the entity
+	 * @param voterId the id of the User who voted
+	 * @param vote 1 = upvote, 0 = remove vote, -1 = downvote
+	 * @return the change to the entity's tally and the epoch it was made in
+	 * @throws UncheckedIOException if the vote cannot be journaled
+	 * @since 1.0
+	 */
+	public VoteChange submit(VoteTarget target, Long entityId, Long voterId, int vote) {
+		VoteKey key = new VoteKey(target, entityId, voterId);
+		if (!writeBehind) {
+			rotation.readLock().lock();
+			try {
+				return new VoteChange(castVote(key, vote), epoch);
+			} finally {
+				rotation.readLock().unlock();
+			}
+		}
+		while (true) {
+			/* Read the stored vote before taking any lock, so a slow read never holds up a flush */
+			long seen = forgotten.get();
+			Integer stored = ledger.containsKey(key) ? null : voteStore.currentVote(key);
+			rotation.readLock().lock();
+			try {
+				synchronized (stripeFor(key)) {
+					Integer prior = ledger.get(key);
+					if (prior == null) {
+						/* The ledger let go of this voter since, the stored vote may be out of date */
+						if (stored == null || forgotten.get() != seen) {
+							continue;
+						}
+						prior = stored;
+					}
+					if (prior == vote) {
+						return new VoteChange(0, epoch);
+					}
+					try {
+						journal.append(key, vote);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+					ledger.put(key, vote);
+					pendingVotes.put(key, vote);
+					pendingTallies.computeIfAbsent(key.entity(), k -> new LongAdder()).add(vote - prior);
+					return new VoteChange(vote - prior, epoch);
+				}
+			} finally {
+				rotation.readLock().unlock();
+			}
+		}
+	}
+
+	/**
+	 * Function to lay votes not yet known to be in the database
+	 * over votes read from it, so voters see their own votes at once
+	 *
+	 * @param target kind of entity
+	 * @param entityIds the ids that were read
+	 * @param voterId the id of the User
+	 * @param votes map of entity id to vote read from the database, updated in place
+	 * @since 1.0
+	 */
+	public void overlay(VoteTarget target, Collection<Long> entityIds, Long voterId, Map<Long, Integer> votes) {
+		if (ledger.isEmpty()) {
+			return;
+		}
+		for (Long entityId : entityIds) {
+			Integer vote = ledger.get(new VoteKey(target, entityId, voterId));
+			if (vote == null) {
+				continue;
+			}
+			if (vote == 0) {
+				votes.remove(entityId);
+			} else {
+				votes.put(entityId, vote);
+			}
+		}
+	}
+
+	/**
+	 * Function to run a database read that no flush overlaps, so
+	 * a tally read from the database plus unflushedTally counts
+	 * every acknowledged vote once. Reads run alongside each other,
+	 * only a flush writing its batch holds them up.
+	 *
+	 * @param read the read to run
+	 * @return the result of the read
+	 * @since 1.0
+	 */
+	public <T> T readSettled(Supplier<T> read) {
+		settling.readLock().lock();
+		try {
+			return read.get();
+		} finally {
+			settling.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Function to get the change to an entity's tally acknowledged
+	 * but not yet written, to be called inside readSettled
+	 *
+	 * @param target kind of entity
+	 * @param entityId the id of the entity
+	 * @return the change to add to the tally read from the database
+	 * @since 1.0
+	 */
+	public int unflushedTally(VoteTarget target, Long entityId) {
+		LongAdder delta = pendingTallies.get(new EntityRef(target, entityId));
+		return delta == null ? 0 : delta.intValue();
+	}
+
+	/**
+	 * Function to run a database read that no flush overlaps and
+	 * collect the tally changes acknowledged but not yet written,
+	 * so the two together count every acknowledged vote once. The
+	 * changes are collected as the next epoch starts, so exactly
+	 * the votes tagged with an earlier epoch are counted. With
+	 * write-behind off votes go straight to the database, so the
+	 * read itself holds them off instead.
+	 *
+	 * @param target kind of entity to collect tally changes of
+	 * @param read the read to run
+	 * @param unflushed map of entity id to tally change, filled in
+	 * @return the result of the read
+	 * @since 1.0
+	 */
+	public <T> T readSettled(VoteTarget target, Supplier<T> read, Map<Long, Integer> unflushed) {
+		settling.readLock().lock();
+		try {
+			T result = writeBehind ? read.get() : null;
+			rotation.writeLock().lock();
+			try {
+				if (!writeBehind) {
+					result = read.get();
+				}
+				pendingTallies.forEach((entity, delta) -> {
+					if (entity.getTarget() == target) {
+						unflushed.merge(entity.getEntityId(), delta.intValue(), Integer::sum);
+					}
+				});
+				epoch++;
+			} finally {
+				rotation.writeLock().unlock();
+			}
+			return result;
+		} finally {
+			settling.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return the epoch votes submitted now are tagged with, the
+	 *         next collecting read counts them and starts epoch + 1
+	 * @since 1.0
+	 */
+	public long epoch() {
+		rotation.readLock().lock();
+		try {
+			return epoch;
+		} finally {
+			rotation.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Function to drop pending votes of an entity that is being deleted
+	 *
+	 * @param target kind of entity
+	 * @param entityId the id of the entity
+	 * @since 1.0
+	 */
+	public void discard(VoteTarget target, Long entityId) {
+		EntityRef entity = new EntityRef(target, entityId);
+		rotation.writeLock().lock();
+		try {
+			forgotten.incrementAndGet();
+			pendingTallies.remove(entity);
+			pendingVotes.keySet().removeIf(key -> key.entity().equals(entity));
+			ledger.keySet().removeIf(key -> key.entity().equals(entity));
+		} finally {
+			rotation.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Function to write everything acknowledged so far to the database,
+	 * run on a fixed delay and on shutdown. On failure the batch is put
+	 * back and retried on the next run.
+	 *
+	 * @since 1.0
+	 */
+	@Scheduled(fixedDelayString = "${doConnect.app.votes.flushMs}")
+	public synchronized void flush() {
+		if (pendingVotes.isEmpty()) {
+			/* Nothing to write, do not hold up settled reads */
+			return;
+		}
+		Map<VoteKey, Integer> votes;
+		settling.writeLock().lock();
+		try {
+			Map<EntityRef, LongAdder> tallies;
+			rotation.writeLock().lock();
+			try {
+				if (pendingVotes.isEmpty()) {
+					return;
+				}
+				votes = pendingVotes;
+				tallies = pendingTallies;
+				pendingVotes = new ConcurrentHashMap<>();
+				pendingTallies = new ConcurrentHashMap<>();
+				unflushedSegments.add(journal.rotate());
+			} catch (IOException e) {
+				logger.error("Cannot rotate vote journal: {}", e.getMessage());
+				return;
+			} finally {
+				rotation.writeLock().unlock();
+			}
+
+			Map<EntityRef, Integer> deltas = new HashMap<>();
+			tallies.forEach((entity, delta) -> deltas.put(entity, delta.intValue()));
+			try {
+				voteStore.apply(votes, deltas);
+			} catch (RuntimeException e) {
+				logger.error("Cannot flush {} vote(s), retrying on next flush: {}", votes.size(), e.getMessage());
+				restore(votes, deltas);
+				return;
+			}
+		} finally {
+			settling.writeLock().unlock();
+		}
+
+		journal.delete(unflushedSegments);
+		unflushedSegments.clear();
+		/* Forget voters whose vote is now in the database and did not change since */
+		forgotten.incrementAndGet();
+		votes.forEach((key, vote) -> {
+			synchronized (stripeFor(key)) {
+				if (!pendingVotes.containsKey(key)) {
+					ledger.remove(key, vote);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Flushes and closes the journal on shutdown
+	 *
+	 * @throws IOException if the journal cannot be closed
+	 * @since 1.0
+	 */
+	@PreDestroy
+	public void close() throws IOException {
+		flush();
+		journal.close();
+	}
+
+	private void restore(Map<VoteKey, Integer> votes, Map<EntityRef, Integer> deltas) {
+		rotation.writeLock().lock();
+		try {
+			votes.forEach(pendingVotes::putIfAbsent);
+			deltas.forEach((entity, delta) ->
+					pendingTallies.computeIfAbsent(entity, k -> new LongAdder()).add(delta));
+		} finally {
+			rotation.writeLock().unlock();
+		}
+	}
+
+	/** Applies a vote synchronously, running it again if the database picked it as a deadlock victim */
+	private int castVote(VoteKey key, int vote) {
+		for (int attempt = 1; ; attempt++) {
+			try {
+				return voteStore.castVote(key, vote);
+			} catch (PessimisticLockingFailureException e) {
+				if (attempt == CAST_ATTEMPTS) {
+					throw e;
+				}
+				logger.debug("Retrying vote on {} {}: {}", key.getTarget(), key.getEntityId(), e.getMessage());
+			}
+		}
+	}
+
+	private boolean schemaRecreated() {
+		return "create".equals(ddlAuto) || "create-drop".equals(ddlAuto);
+	}
+
+	private Object stripeFor(VoteKey key) {
+		return stripes[key.hashCode() & (STRIPES - 1)];
+	}
+}
@@ -0,0 +1,18 @@
+package com.cogent.vote;
+
+import lombok.Data;
+
+/**
+ * Change a submitted vote made to its entity's tally
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@Data
+public class VoteChange {
+	/** Change to the entity's tally, 0 if the voter already had this vote */
+	private final int delta;
+	
+	/** Collecting reads done before the vote, see VoteAggregator#epoch() */
+	private final long epoch;
+}
@@ -0,0 +1,196 @@
+package com.cogent.vote;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only local journal of acknowledged votes
+ *
+ * The journal is split in numbered segments. Votes are appended
+ * to the open segment, the aggregator rotates to a new segment
+ * every time it takes a batch to the database and deletes the
+ * closed segments once that batch is committed. Every line holds
+ * the absolute vote, not a delta, so replaying a segment whose
+ * batch was already committed is harmless.
+ *
+ * Every segment starts with a header line naming its format,
+ * a segment without it is not read.
+ *
+ * @author michaelmiranda
+ * @since 1.0
+ */
+public class VoteJournal {
+	private static final Logger logger = LoggerFactory.getLogger(VoteJournal.class);
+
+	private static final String PREFIX = "votes-";
+
+	private static final String SUFFIX = ".log";
+
+	/** First line of every segment */
+	private static final String HEADER = "#votes v2";
+
+	/** Directory holding the segments */
+	private final Path dir;
+
+	/** Number of the open segment */
+	private long segment;
+
+	/** Stream of the open segment, kept to force it to disk */
+	private FileOutputStream out;
+
+	/** Writer of the open segment */
+	private BufferedWriter writer;
+
+	/**
+	 * Opens a new segment after any segments left by a previous run
+	 *
+	 * @param dir the directory to keep segments in, created if missing
+	 * @throws IOException if the directory or segment cannot be created
+	 * @since 1.0
+	 */
+	public VoteJournal(Path dir) throws IOException {
+		this.dir = Files.createDirectories(dir);
+		List<Path> existing = segments();
+		segment = existing.isEmpty() ? 0 : number(existing.get(existing.size() - 1)) + 1;
+		open();
+	}
+
+	/**
+	 * Appends a vote to the open segment, the line is handed
+	 * to the operating system before returning so it survives
+	 * a crash of the process
+	 *
+	 * @param key the voter and entity
+	 * @param vote the absolute vote
+	 * @throws IOException if the segment cannot be written
+	 * @since 1.0
+	 */
+	public synchronized void append(VoteKey key, int vote) throws IOException {
+		writer.write(key.getTarget().name() + "\t" + key.getEntityId() + "\t" + vote + "\t" + key.getVoterId());
+		writer.newLine();
+		writer.flush();
+	}
+
+	/**
+	 * Closes the open segment and opens the next one
+	 *
+	 * @return the closed segment
+	 * @throws IOException if the segments cannot be switched
+	 * @since 1.0
+	 */
+	public synchronized Path rotate() throws IOException {
+		Path closed = path(segment);
+		writer.flush();
+		out.getChannel().force(false);
+		writer.close();
+		segment++;
+		open();
+		return closed;
+	}
+
+	/**
+	 * @return every segment in the directory except the open one, oldest first
+	 * @throws IOException if the directory cannot be listed
+	 * @since 1.0
+	 */
+	public synchronized List<Path> segments() throws IOException {
+		List<Path> segments = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, PREFIX + "*" + SUFFIX)) {
+			for (Path path : stream) {
+				if (writer == null || number(path) != segment) {
+					segments.add(path);
+				}
+			}
+		}
+		Collections.sort(segments);
+		return segments;
+	}
+
+	/**
+	 * Reads every vote in a segment, skipping lines torn by a crash
+	 *
+	 * @param path the segment to read
+	 * @param consumer called with each voter and vote in order
+	 * @throws IOException if the segment cannot be read
+	 * @since 1.0
+	 */
+	public void read(Path path, BiConsumer<VoteKey, Integer> consumer) throws IOException {
+		try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+			String line = reader.readLine();
+			if (line != null && !line.equals(HEADER)) {
+				logger.warn("Skipping vote journal segment {} without a {} header", path, HEADER);
+				return;
+			}
+			for (line = reader.readLine(); line != null; line = reader.readLine()) {
+				String[] fields = line.split("\t", 4);
+				try {
+					consumer.accept(new VoteKey(VoteTarget.valueOf(fields[0]), Long.parseLong(fields[1]),
+							Long.parseLong(fields[3])), Integer.parseInt(fields[2]));
+				} catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+					logger.warn("Skipping unreadable vote journal line in {}", path);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Deletes segments whose votes are committed to the database
+	 *
+	 * @param paths the segments to delete
+	 * @since 1.0
+	 */
+	public void delete(List<Path> paths) {
+		for (Path path : paths) {
+			try {
+				Files.deleteIfExists(path);
+			} catch (IOException e) {
+				logger.warn("Cannot delete vote journal segment {}: {}", path, e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Forces and closes the open segment
+	 *
+	 * @throws IOException if the segment cannot be closed
+	 * @since 1.0
+	 */
+	public synchronized void close() throws IOException {
+		writer.flush();
+		out.getChannel().force(false);
+		writer.close();
+	}
+
+	private void open() throws IOException {
+		out = new FileOutputStream(path(segment).toFile(), true);
+		writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		if (out.getChannel().size() == 0) {
+			writer.write(HEADER);
+			writer.newLine();
+			writer.flush();
+		}
+	}
+
+	private Path path(long number) {
+		return dir.resolve(String.format("%s%012d%s", PREFIX, number, SUFFIX));
+	}
+
+	private static long number(Path path) {
+		String name = path.getFileName().toString();
+		return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+	}
+}
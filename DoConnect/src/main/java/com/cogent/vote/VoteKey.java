@@ -0,0 +1,29 @@
+package com.cogent.vote;
+
+import lombok.Data;
+
+/**
+ * Key of a single voter's vote on a single entity
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@Data
+public class VoteKey {
+	/** Kind of entity voted on */
+	private final VoteTarget target;
+	
+	/** ID of the Question or Answer voted on */
+	private final Long entityId;
+	
+	/** ID of the User who voted */
+	private final Long voterId;
+	
+	/**
+	 * @return the entity this vote counts towards
+	 * @since 1.0
+	 */
+	public EntityRef entity() {
+		return new EntityRef(target, entityId);
+	}
+}
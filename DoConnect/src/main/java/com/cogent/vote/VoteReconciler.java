@@ -0,0 +1,98 @@
+package com.cogent.vote;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.cogent.entity.TallyCheck;
+
+/**
+ * Background job that keeps the denormalized voteTally
+ * of Questions and Answers in line with the votes ledger
+ *
+ * Every run reads one chunk of each kind of entity in id order,
+ * starting after the checkpoint left by the previous run, and
+ * compares each stored tally with the sum of its votes. Both
+ * come from one statement so they always describe the same
+ * moment. Drifted tallies are corrected in one transaction per
+ * chunk. Once a pass reaches the end of a table it starts over
+ * from the first id, so the whole table is covered a chunk at a
+ * time without ever locking more than one chunk of rows.
+ *
+ * The pace is set by doConnect.app.votes.reconcileMs and
+ * doConnect.app.votes.reconcileChunk.
+ *
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@Component
+public class VoteReconciler {
+	private static final Logger logger = LoggerFactory.getLogger(VoteReconciler.class);
+
+	@Autowired
+	private VoteStore voteStore;
+
+	/** Largest number of entities of each kind checked per run */
+	@Value("${doConnect.app.votes.reconcileChunk:500}")
+	private int chunkSize;
+
+	/** Last id checked of each kind of entity, 0 at the start of a pass */
+	private final Map<VoteTarget, Long> checkpoints = new EnumMap<>(VoteTarget.class);
+
+	/** Tallies corrected so far in the current pass of each kind of entity */
+	private final Map<VoteTarget, Integer> corrected = new EnumMap<>(VoteTarget.class);
+
+	/**
+	 * Function to check and correct the next chunk of
+	 * each kind of entity, run on a fixed delay
+	 *
+	 * @since 1.0
+	 */
+	@Scheduled(fixedDelayString = "${doConnect.app.votes.reconcileMs:5000}",
+			initialDelayString = "${doConnect.app.votes.reconcileMs:5000}")
+	public synchronized void reconcile() {
+		for (VoteTarget target : VoteTarget.values()) {
+			try {
+				reconcile(target);
+			} catch (RuntimeException e) {
+				logger.error("Cannot reconcile {} vote tallies, retrying on next run: {}", target, e.getMessage());
+			}
+		}
+	}
+
+	private void reconcile(VoteTarget target) {
+		Long after = checkpoints.getOrDefault(target, 0L);
+		List<TallyCheck> chunk = voteStore.checkTallies(target, after, chunkSize);
+
+		Map<Long, Integer> corrections = new HashMap<>();
+		for (TallyCheck check : chunk) {
+			long drift = check.getLedgerTally() - check.getVoteTally();
+			if (drift != 0) {
+				corrections.put(check.getEntityId(), (int) drift);
+			}
+		}
+		if (!corrections.isEmpty()) {
+			voteStore.correctTallies(target, corrections);
+			logger.warn("Corrected {} drifted {} vote tallies after id {}", corrections.size(), target, after);
+		}
+		int total = corrected.getOrDefault(target, 0) + corrections.size();
+
+		if (chunk.size() < chunkSize) {
+			/* Reached the end of the table, start the next pass from the first id */
+			logger.debug("Finished {} vote tally pass, {} corrected", target, total);
+			checkpoints.put(target, 0L);
+			corrected.put(target, 0);
+		} else {
+			checkpoints.put(target, chunk.get(chunk.size() - 1).getEntityId());
+			corrected.put(target, total);
+		}
+	}
+}
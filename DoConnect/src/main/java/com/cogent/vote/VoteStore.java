@@ -0,0 +1,163 @@
+package com.cogent.vote;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cogent.entity.TallyCheck;
+import com.cogent.repository.AnswerRepository;
+import com.cogent.repository.QuestionRepository;
+import com.cogent.repository.VoteRepository;
+
+/**
+ * Component to read and write votes and tallies
+ * in the database on behalf of the VoteAggregator
+ *
+ * @author michaelmiranda
+ * @since 1.0
+ */
+@Component
+public class VoteStore {
+	@Autowired
+	private QuestionRepository questionRepository;
+
+	@Autowired
+	private AnswerRepository answerRepository;
+
+	@Autowired
+	private VoteRepository voteRepository;
+
+	/**
+	 * Function to read the vote a voter currently has in the database
+	 *
+	 * @param key the voter and entity
+	 * @return the vote, 0 if the voter has not voted
+	 * @since 1.0
+	 */
+	public int currentVote(VoteKey key) {
+		List<Byte> votes = voteRepository.findVotesByEntityIdAndVoterId(key.getTarget().getCode(),
+				key.getEntityId(), key.getVoterId());
+		return votes.isEmpty() ? 0 : votes.get(0);
+	}
+
+	/**
+	 * Function to apply a single vote synchronously, used when write-behind
+	 * is off. The Question or Answer row is locked first, so every vote on
+	 * the entity serializes on a row that always exists. Locking the vote
+	 * row instead would only take a gap lock when the voter has not voted
+	 * yet, and two such first votes would both insert and deadlock. The
+	 * tally is changed in place under the same lock.
+	 *
+	 * @param key the voter and entity
+	 * @param vote 1 = upvote, 0 = remove vote, -1 = downvote
+	 * @return the change to the entity's tally, 0 if the voter already has this vote
+	 * @throws NoSuchElementException if the Question or Answer does not exist
+	 * @since 1.0
+	 */
+	@Transactional
+	public int castVote(VoteKey key, int vote) throws NoSuchElementException {
+		List<Long> locked = key.getTarget() == VoteTarget.QUESTION 
+				? questionRepository.lockById(key.getEntityId())
+				: answerRepository.lockById(key.getEntityId());
+		if (locked.isEmpty()) {
+			throw new NoSuchElementException("No " + key.getTarget().name().toLowerCase() + " " + key.getEntityId());
+		}
+		int prior = currentVote(key);
+		if (prior == vote) {
+			return 0;
+		}
+		writeVote(key, vote);
+		addToVoteTally(key.entity(), vote - prior);
+		return vote - prior;
+	}
+
+	/**
+	 * Function to write a batch of votes and tally changes in one transaction,
+	 * votes on entities deleted in the mean time are dropped
+	 *
+	 * @param votes the latest vote of each voter, 0 removes the vote
+	 * @param deltas the change to apply to each entity's voteTally
+	 * @since 1.0
+	 */
+	@Transactional
+	public void apply(Map<VoteKey, Integer> votes, Map<EntityRef, Integer> deltas) {
+		Set<Long> questionIds = new HashSet<>();
+		Set<Long> answerIds = new HashSet<>();
+		for (VoteKey key : votes.keySet()) {
+			(key.getTarget() == VoteTarget.QUESTION ? questionIds : answerIds).add(key.getEntityId());
+		}
+		if (!questionIds.isEmpty()) {
+			questionIds = new HashSet<>(questionRepository.findExistingIds(questionIds));
+		}
+		if (!answerIds.isEmpty()) {
+			answerIds = new HashSet<>(answerRepository.findExistingIds(answerIds));
+		}
+
+		for (Map.Entry<VoteKey, Integer> entry : votes.entrySet()) {
+			VoteKey key = entry.getKey();
+			if ((key.getTarget() == VoteTarget.QUESTION ? questionIds : answerIds).contains(key.getEntityId())) {
+				writeVote(key, entry.getValue());
+			}
+		}
+		for (Map.Entry<EntityRef, Integer> entry : deltas.entrySet()) {
+			addToVoteTally(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * Function to read the stored and recomputed tally of the
+	 * next chunk of entities in id order
+	 *
+	 * @param target kind of entity
+	 * @param after the last id of the previous chunk, 0 to start over
+	 * @param limit the largest number of entities to read
+	 * @return one row per entity in id order
+	 * @since 1.0
+	 */
+	public List<TallyCheck> checkTallies(VoteTarget target, Long after, int limit) {
+		return target == VoteTarget.QUESTION
+				? questionRepository.findTallyChecksAfter(target.getCode(), after, limit)
+				: answerRepository.findTallyChecksAfter(target.getCode(), after, limit);
+	}
+
+	/**
+	 * Function to correct drifted tallies in one transaction. Each
+	 * correction is added in place rather than overwriting the tally,
+	 * so votes committed since the tallies were read are kept.
+	 *
+	 * @param target kind of entity
+	 * @param corrections the amount to add to each entity's voteTally
+	 * @since 1.0
+	 */
+	@Transactional
+	public void correctTallies(VoteTarget target, Map<Long, Integer> corrections) {
+		for (Map.Entry<Long, Integer> entry : corrections.entrySet()) {
+			addToVoteTally(new EntityRef(target, entry.getKey()), entry.getValue());
+		}
+	}
+
+	private void writeVote(VoteKey key, int vote) {
+		if (vote == 0) {
+			voteRepository.deleteVote(key.getTarget().getCode(), key.getEntityId(), key.getVoterId());
+		} else {
+			voteRepository.upsertVote(key.getTarget().getCode(), key.getEntityId(), key.getVoterId(), (byte) vote);
+		}
+	}
+
+	private void addToVoteTally(EntityRef entity, int delta) {
+		if (delta == 0) {
+			return;
+		}
+		if (entity.getTarget() == VoteTarget.QUESTION) {
+			questionRepository.addToVoteTally(entity.getEntityId(), delta);
+		} else {
+			answerRepository.addToVoteTally(entity.getEntityId(), delta);
+		}
+	}
+}
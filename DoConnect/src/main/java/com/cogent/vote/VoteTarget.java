@@ -0,0 +1,28 @@
+package com.cogent.vote;
+
+/**
+ * Kinds of entities that can be voted on, each
+ * stored in the votes table as a one byte code
+ * 
+ * @author michaelmiranda
+ * @since 1.0
+ */
+public enum VoteTarget {
+	QUESTION((byte) 1),
+	ANSWER((byte) 2);
+	
+	/** Value of the entity_type column, never change once stored */
+	private final byte code;
+	
+	private VoteTarget(byte code) {
+		this.code = code;
+	}
+	
+	/**
+	 * @return the code stored in the entity_type column
+	 * @since 1.0
+	 */
+	public byte getCode() {
+		return code;
+	}
+}
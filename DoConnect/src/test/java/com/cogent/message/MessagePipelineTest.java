@@ -0,0 +1,165 @@
+package com.cogent.message;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.cogent.entity.Message;
+import com.cogent.entity.MessageEvent;
+import com.cogent.exception.ServerBusyException;
+import com.cogent.realtime.MessageHub;
+
+class MessagePipelineTest {
+	private final MessagePipeline pipeline = new MessagePipeline();
+
+	private final FakeMessageStore store = new FakeMessageStore();
+
+	private final List<Long> published = Collections.synchronizedList(new ArrayList<>());
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		store.release.countDown();
+		pipeline.close();
+	}
+
+	@Test
+	void failedBatchIsWrittenOneByOne() throws Exception {
+		start(3, 1000);
+		CompletableFuture<Message> first = pipeline.submit(message("first"), 1L, null, null);
+		CompletableFuture<Message> bad = pipeline.submit(message("bad"), 1L, null, null);
+		CompletableFuture<Message> last = pipeline.submit(message("last"), 1L, null, null);
+
+		assertEquals("first", first.get(5, TimeUnit.SECONDS).getMessageText());
+		assertEquals("last", last.get(5, TimeUnit.SECONDS).getMessageText());
+		assertTrue(causeOf(bad) instanceof IllegalStateException);
+		assertEquals("[3, 1, 1, 1]", store.batches.toString());
+		/* Futures complete before their Messages are published, let the writer finish */
+		pipeline.close();
+		assertEquals(2, published.size());
+	}
+
+	@Test
+	void closeWritesQueuedMessagesThenTurnsAwayNewOnes() throws Exception {
+		start(1, 0);
+		store.blocking = true;
+		CompletableFuture<Message> first = pipeline.submit(message("first"), 1L, null, null);
+		CompletableFuture<Message> queued = pipeline.submit(message("queued"), 1L, null, null);
+		store.writing.await(5, TimeUnit.SECONDS);
+		store.release.countDown();
+		pipeline.close();
+
+		assertTrue(first.isDone() && queued.isDone());
+		assertEquals("queued", queued.get().getMessageText());
+		assertThrows(ServerBusyException.class, () -> pipeline.submit(message("late"), 1L, null, null));
+	}
+
+	@Test
+	void stoppedWriterFailsQueuedMessages() throws Exception {
+		start(1, 0);
+		store.blocking = true;
+		CompletableFuture<Message> first = pipeline.submit(message("first"), 1L, null, null);
+		CompletableFuture<Message> queued = pipeline.submit(message("queued"), 1L, null, null);
+		store.writing.await(5, TimeUnit.SECONDS);
+		((Thread) ReflectionTestUtils.getField(pipeline, "writer")).interrupt();
+
+		assertTrue(causeOf(first) instanceof IllegalStateException);
+		assertTrue(causeOf(queued) instanceof ServerBusyException);
+		assertEquals(0, published.size());
+	}
+
+	@Test
+	void stoppedWriterFailsBatchBeingCollected() throws Exception {
+		start(3, 5000);
+		CompletableFuture<Message> collected = pipeline.submit(message("collected"), 1L, null, null);
+		while (pipeline.size() > 0) {
+			Thread.sleep(1);
+		}
+		((Thread) ReflectionTestUtils.getField(pipeline, "writer")).interrupt();
+
+		assertTrue(causeOf(collected) instanceof ServerBusyException);
+		assertTrue(store.batches.isEmpty());
+	}
+
+	private void start(int maxBatch, long windowMs) {
+		ReflectionTestUtils.setField(pipeline, "messageStore", store);
+		ReflectionTestUtils.setField(pipeline, "messageHub", new MessageHub() {
+			@Override
+			public void publish(MessageEvent event, Collection<String> userNames) {
+				published.add(event.getId());
+			}
+		});
+		ReflectionTestUtils.setField(pipeline, "queueSize", 16);
+		ReflectionTestUtils.setField(pipeline, "maxBatch", maxBatch);
+		ReflectionTestUtils.setField(pipeline, "windowMs", windowMs);
+		pipeline.init();
+	}
+
+	private static Message message(String text) {
+		Message message = new Message();
+		message.setMessageText(text);
+		return message;
+	}
+
+	private static Throwable causeOf(CompletableFuture<Message> future) throws Exception {
+		try {
+			future.get(5, TimeUnit.SECONDS);
+		} catch (ExecutionException e) {
+			return e.getCause();
+		}
+		fail("message was written");
+		return null;
+	}
+
+	private static class FakeMessageStore extends MessageStore {
+		/** Size of every batch written, in order */
+		final List<Integer> batches = Collections.synchronizedList(new ArrayList<>());
+
+		/** Counted down once the first write has started */
+		final CountDownLatch writing = new CountDownLatch(1);
+
+		/** Blocking writes wait for this */
+		final CountDownLatch release = new CountDownLatch(1);
+
+		volatile boolean blocking;
+
+		private long nextId = 1;
+
+		@Override
+		public void write(List<PendingMessage> batch) {
+			batches.add(batch.size());
+			writing.countDown();
+			if (blocking) {
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException("interrupted");
+				}
+			}
+			for (PendingMessage pending : batch) {
+				if ("bad".equals(pending.getMessage().getMessageText())) {
+					throw new IllegalStateException("bad message");
+				}
+			}
+			for (PendingMessage pending : batch) {
+				pending.setChatId(pending.getRequestedChatId());
+				pending.setParticipants(Collections.singletonList("alice"));
+				pending.getMessage().setId(nextId++);
+			}
+		}
+	}
+}
@@ -0,0 +1,174 @@
+package com.cogent.message;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.cogent.entity.Chat;
+import com.cogent.entity.Message;
+import com.cogent.repository.ChatRepository;
+import com.cogent.service.ChatService;
+import com.cogent.service.InboxService;
+
+class MessageStoreTest {
+	private final MessageStore store = new MessageStore();
+
+	private final EntityManager entityManager = mock(EntityManager.class);
+
+	private final ChatRepository chatRepository = mock(ChatRepository.class);
+
+	private final Query insert = mock(Query.class);
+
+	private final FakeChatService chatService = new FakeChatService();
+
+	/** Rows of every insert statement, five values per Message */
+	private final List<List<Object>> inserts = new ArrayList<>();
+
+	/** Values bound to the insert statement being built */
+	private List<Object> values;
+
+	private final Map<Long, List<Message>> inboxes = new HashMap<>();
+
+	private long nextId = 100;
+
+	private long lastInsertId;
+
+	@BeforeEach
+	void setUp() {
+		when(entityManager.createNativeQuery(anyString())).thenAnswer(invocation -> {
+			values = new ArrayList<>();
+			return insert;
+		});
+		when(insert.setParameter(anyInt(), any())).thenAnswer(invocation -> {
+			values.add(invocation.getArgument(1));
+			return insert;
+		});
+		when(insert.executeUpdate()).thenAnswer(invocation -> {
+			inserts.add(values);
+			lastInsertId = nextId;
+			nextId += values.size() / 5;
+			return values.size() / 5;
+		});
+		when(chatRepository.lastInsertId()).thenAnswer(invocation -> lastInsertId);
+		ReflectionTestUtils.setField(store, "entityManager", entityManager);
+		ReflectionTestUtils.setField(store, "chatRepository", chatRepository);
+		ReflectionTestUtils.setField(store, "chatService", chatService);
+		ReflectionTestUtils.setField(store, "inboxService", new InboxService() {
+			@Override
+			public void record(Long chatId, List<String> participants, List<Message> messages) {
+				inboxes.put(chatId, messages);
+			}
+		});
+		chatService.lastSeqs.put(1L, 0L);
+		chatService.lastSeqs.put(2L, 10L);
+	}
+
+	@Test
+	void seqsFollowBatchOrderPerChat() {
+		PendingMessage first = pending("first", 2L);
+		PendingMessage second = pending("second", 1L);
+		PendingMessage third = pending("third", 2L);
+
+		store.write(Arrays.asList(first, second, third));
+
+		assertEquals(Long.valueOf(11), first.getMessage().getSeq());
+		assertEquals(Long.valueOf(1), second.getMessage().getSeq());
+		assertEquals(Long.valueOf(12), third.getMessage().getSeq());
+		assertEquals("[1x1, 2x2]", chatService.taken.toString());
+		assertEquals(2, inboxes.get(2L).size());
+		assertEquals(first.getMessage(), inboxes.get(2L).get(0));
+	}
+
+	@Test
+	void batchGoesInWithOneInsertAndConsecutiveIds() {
+		List<PendingMessage> batch = Arrays.asList(pending("first", 1L), pending("second", 2L));
+
+		store.write(batch);
+
+		assertEquals(1, inserts.size());
+		assertEquals(10, inserts.get(0).size());
+		assertEquals(Long.valueOf(100), batch.get(0).getMessage().getId());
+		assertEquals(Long.valueOf(101), batch.get(1).getMessage().getId());
+		assertEquals(Long.valueOf(2), batch.get(1).getMessage().getChat().getId());
+	}
+
+	@Test
+	void newChatIsResolvedFromItsUsers() {
+		PendingMessage pending = new PendingMessage(message("hello"), null, "alice", "bob");
+
+		store.write(Collections.singletonList(pending));
+
+		assertEquals(Long.valueOf(3), pending.getChatId());
+		assertEquals(Arrays.asList("alice", "bob"), pending.getParticipants());
+		assertEquals(Long.valueOf(1), pending.getMessage().getSeq());
+	}
+
+	@Test
+	void unknownChatFailsTheBatch() {
+		List<PendingMessage> batch = Arrays.asList(pending("first", 1L), pending("lost", 9L));
+
+		assertThrows(NoSuchElementException.class, () -> store.write(batch));
+		assertEquals(0, inserts.size());
+	}
+
+	private static PendingMessage pending(String text, Long chatId) {
+		return new PendingMessage(message(text), chatId, null, null);
+	}
+
+	private static Message message(String text) {
+		Message message = new Message();
+		message.setMessageText(text);
+		message.setFromUser("alice");
+		return message;
+	}
+
+	private static class FakeChatService extends ChatService {
+		final Map<Long, Long> lastSeqs = new HashMap<>();
+
+		/** Every takeSeqs call as chatxcount, in call order */
+		final List<String> taken = new ArrayList<>();
+
+		@Override
+		public Long resolveId(String userA, String userB) {
+			lastSeqs.putIfAbsent(3L, 0L);
+			return 3L;
+		}
+
+		@Override
+		public Long takeSeqs(Long id, int count) {
+			taken.add(id + "x" + count);
+			return lastSeqs.merge(id, (long) count, Long::sum);
+		}
+
+		@Override
+		public List<String> getParticipants(Long id) {
+			return lastSeqs.containsKey(id) ? Arrays.asList("alice", "bob") : Collections.<String>emptyList();
+		}
+
+		@Override
+		public Chat getReference(Long id) {
+			Chat chat = new Chat();
+			chat.setId(id);
+			return chat;
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package com.cogent.security.jwt;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class TokenDenylistTest {
+  private static final long HOUR = 60 * 60 * 1000L;
+
+  @TempDir
+  Path dir;
+
+  @Test
+  void userCutoffRevokesOnlyEarlierTokens() throws IOException {
+    TokenDenylist denylist = denylist();
+    long now = System.currentTimeMillis();
+    denylist.revoke("birduser", now, now + HOUR);
+    denylist.close();
+
+    assertTrue(denylist.isRevoked("birduser", now - 1));
+    assertFalse(denylist.isRevoked("birduser", now));
+    assertFalse(denylist.isRevoked("doguser", now - 1));
+  }
+
+  @Test
+  void revocationsSurviveRestartAndPurge() throws IOException {
+    TokenDenylist denylist = denylist();
+    long now = System.currentTimeMillis();
+    denylist.revoke("birduser", now, now + HOUR);
+    denylist.revoke("jti-1", now + HOUR);
+    denylist.close();
+
+    TokenDenylist restarted = denylist();
+    restarted.purge();
+    restarted.close();
+
+    assertTrue(restarted.isRevoked("birduser", now - 1));
+    assertTrue(restarted.isRevoked("jti-1"));
+    assertFalse(restarted.isRevoked("jti-2"));
+  }
+
+  private TokenDenylist denylist() throws IOException {
+    TokenDenylist denylist = new TokenDenylist();
+    ReflectionTestUtils.setField(denylist, "file", dir.resolve("revoked-tokens.log").toString());
+    ReflectionTestUtils.setField(denylist, "expected", 100L);
+    denylist.init();
+    return denylist;
+  }
+}
@@ -0,0 +1,136 @@
+package com.cogent.security.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.cogent.entity.ERole;
+import com.cogent.entity.Role;
+import com.cogent.entity.User;
+import com.cogent.exception.ServerBusyException;
+import com.cogent.repository.RoleRepository;
+import com.cogent.repository.UserRepository;
+
+class SignupServiceTest {
+  private final SignupService service = new SignupService();
+
+  private final UserRepository userRepository = mock(UserRepository.class);
+
+  private final RoleRepository roleRepository = mock(RoleRepository.class);
+
+  private final List<User> saved = Collections.synchronizedList(new ArrayList<>());
+
+  private final CountDownLatch hashing = new CountDownLatch(1);
+
+  @BeforeEach
+  void setUp() {
+    when(userRepository.existsByUserName(anyString())).thenAnswer(invocation -> saved.stream()
+        .anyMatch(user -> user.getUserName().equalsIgnoreCase(invocation.getArgument(0))));
+    when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+      saved.add(invocation.getArgument(0));
+      return invocation.getArgument(0);
+    });
+    when(roleRepository.findAll()).thenReturn(Collections.singletonList(new Role(1, ERole.ROLE_USER)));
+    ReflectionTestUtils.setField(service, "userRepository", userRepository);
+    ReflectionTestUtils.setField(service, "roleRepository", roleRepository);
+    ReflectionTestUtils.setField(service, "encoder", new PasswordEncoder() {
+      @Override
+      public String encode(CharSequence rawPassword) {
+        try {
+          hashing.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return "hashed:" + rawPassword;
+      }
+
+      @Override
+      public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return encodedPassword.equals("hashed:" + rawPassword);
+      }
+    });
+    ReflectionTestUtils.setField(service, "hashThreads", 1);
+    ReflectionTestUtils.setField(service, "hashQueue", 1);
+    ReflectionTestUtils.setField(service, "expectedUsers", 1000L);
+    ReflectionTestUtils.setField(service, "falsePositiveRate", 0.01);
+    service.init();
+  }
+
+  @AfterEach
+  void tearDown() {
+    hashing.countDown();
+    service.close();
+  }
+
+  @Test
+  void fullQueueTurnsSignupsAway() {
+    CompletableFuture<User> running = service.register(user("first"), "secret");
+    CompletableFuture<User> queued = service.register(user("second"), "secret");
+
+    assertThrows(ServerBusyException.class, () -> service.register(user("third"), "secret"));
+    hashing.countDown();
+    assertEquals("second", queued.join().getUserName());
+    assertEquals("first", running.join().getUserName());
+    assertEquals(2, saved.size());
+  }
+
+  @Test
+  void registeredUserIsHashedAndRemembered() {
+    service.load();
+    assertFalse(service.isUserNameTaken("Alice"));
+    verify(userRepository, never()).existsByUserName(anyString());
+
+    hashing.countDown();
+    User user = service.register(user("Alice"), "secret").join();
+
+    assertEquals("hashed:secret", user.getPassword());
+    assertTrue(service.isUserNameTaken("ALICE"));
+    verify(userRepository).existsByUserName(anyString());
+  }
+
+  @Test
+  void checksAskDatabaseUntilLoaded() {
+    assertFalse(service.isUserNameTaken("bob"));
+    assertFalse(service.isEmailTaken("bob@example.com"));
+
+    verify(userRepository).existsByUserName("bob");
+    verify(userRepository).existsByEmail("bob@example.com");
+  }
+
+  @Test
+  void rolesAreReadOnce() {
+    Role role = service.getRole(ERole.ROLE_USER);
+
+    assertSame(role, service.getRole(ERole.ROLE_USER));
+    assertEquals(ERole.ROLE_USER, role.getName());
+    assertThrows(RuntimeException.class, () -> service.getRole(ERole.ROLE_ADMIN));
+  }
+
+  private static User user(String userName) {
+    User user = new User();
+    user.setUserName(userName);
+    user.setEmail(userName + "@example.com");
+    return user;
+  }
+}
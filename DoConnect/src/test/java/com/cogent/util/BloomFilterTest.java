@@ -0,0 +1,80 @@
+package com.cogent.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+	private static final int EXPECTED = 10000;
+
+	@Test
+	void addedStringsAreAlwaysFound() {
+		BloomFilter filter = new BloomFilter(EXPECTED, 0.01);
+		for (int i = 0; i < EXPECTED; i++) {
+			filter.add("user" + i);
+		}
+
+		for (int i = 0; i < EXPECTED; i++) {
+			assertTrue(filter.mightContain("user" + i), "user" + i + " was added");
+		}
+	}
+
+	@Test
+	void falsePositiveRateStaysNearTarget() {
+		BloomFilter filter = new BloomFilter(EXPECTED, 0.01);
+		for (int i = 0; i < EXPECTED; i++) {
+			filter.add("user" + i);
+		}
+
+		int wrong = 0;
+		int probes = 100000;
+		for (int i = 0; i < probes; i++) {
+			if (filter.mightContain("other" + i)) {
+				wrong++;
+			}
+		}
+		double rate = (double) wrong / probes;
+		assertTrue(rate < 0.02, "false positive rate " + rate);
+	}
+
+	@Test
+	void emptyFilterFindsNothing() {
+		BloomFilter filter = new BloomFilter(EXPECTED, 0.01);
+
+		assertFalse(filter.mightContain("user"));
+		assertFalse(filter.mightContain(""));
+	}
+
+	@Test
+	void concurrentAddsAreAllFound() throws Exception {
+		BloomFilter filter = new BloomFilter(EXPECTED, 0.01);
+		ExecutorService adders = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> done = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				int first = t;
+				done.add(adders.submit(() -> {
+					for (int i = first; i < EXPECTED; i += 4) {
+						filter.add("user" + i);
+					}
+				}));
+			}
+			for (Future<?> future : done) {
+				future.get();
+			}
+		} finally {
+			adders.shutdown();
+		}
+
+		for (int i = 0; i < EXPECTED; i++) {
+			assertTrue(filter.mightContain("user" + i), "user" + i + " was added");
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package com.cogent.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class LruCacheTest {
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@Test
+	void leastRecentlyUsedEntryIsEvicted() {
+		List<String> removed = new ArrayList<>();
+		LruCache<String, String> cache = new LruCache<>("test", 2, 60000, (key, value) -> { },
+				(key, value) -> removed.add(key));
+		cache.get("a", this::load);
+		cache.get("b", this::load);
+		cache.get("a", this::load);
+		cache.get("c", this::load);
+
+		assertEquals(3, loads.get());
+		assertEquals("[b]", removed.toString());
+		cache.get("a", this::load);
+		assertEquals(3, loads.get());
+		cache.get("b", this::load);
+		assertEquals(4, loads.get());
+		assertEquals(2, cache.stats().getEvictions());
+	}
+
+	@Test
+	void expiredEntryIsLoadedAgain() {
+		LruCache<String, String> cache = new LruCache<>("test", 10, 0);
+		cache.get("a", this::load);
+		cache.get("a", this::load);
+
+		assertEquals(2, loads.get());
+		assertEquals(1, cache.stats().getExpirations());
+	}
+
+	@Test
+	void loadRacingInvalidateIsNotStored() {
+		LruCache<String, String> cache = new LruCache<>("test", 10, 60000);
+		String value = cache.get("a", key -> {
+			cache.invalidate(key);
+			return load(key);
+		});
+
+		assertEquals("a1", value);
+		assertEquals("a2", cache.get("a", this::load));
+		assertEquals("a2", cache.get("a", this::load));
+	}
+
+	@Test
+	void loadRacingPatchIsNotStored() {
+		LruCache<String, String> cache = new LruCache<>("test", 10, 60000);
+		cache.get("a", key -> {
+			cache.patch(key, old -> old + "!");
+			return load(key);
+		});
+
+		assertEquals("a2", cache.get("a", this::load));
+	}
+
+	@Test
+	void patchReplacesCachedValue() {
+		LruCache<String, String> cache = new LruCache<>("test", 10, 60000);
+		cache.get("a", this::load);
+		cache.patch("a", old -> old + "!");
+		cache.patch("b", old -> old + "!");
+
+		assertEquals("a1!", cache.get("a", this::load));
+		assertEquals(1, loads.get());
+	}
+
+	private String load(String key) {
+		return key + loads.incrementAndGet();
+	}
+}
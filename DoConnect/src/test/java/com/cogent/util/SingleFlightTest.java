@@ -0,0 +1,115 @@
+package com.cogent.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+	private final ExecutorService callers = Executors.newCachedThreadPool();
+
+	private final SingleFlight<String, String> flights = new SingleFlight<>();
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@AfterEach
+	void stop() {
+		release.countDown();
+		callers.shutdownNow();
+	}
+
+	@Test
+	void concurrentMissesLoadOnce() throws Exception {
+		List<Future<String>> results = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			results.add(callers.submit(() -> flights.load("a", this::blockingLoad)));
+		}
+		awaitJoined(3);
+		release.countDown();
+
+		for (Future<String> result : results) {
+			assertEquals("a1", result.get(5, TimeUnit.SECONDS));
+		}
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	void loaderExceptionReachesJoiners() throws Exception {
+		IllegalStateException thrown = new IllegalStateException("down");
+		Future<String> first = callers.submit(() -> flights.load("a", key -> {
+			blockingLoad(key);
+			throw thrown;
+		}));
+		awaitLoads(1);
+		Future<String> joiner = callers.submit(() -> flights.load("a", this::blockingLoad));
+		awaitJoined(1);
+		release.countDown();
+
+		assertSame(thrown, causeOf(first));
+		assertSame(thrown, causeOf(joiner));
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	void forgetDetachesRunningFlight() throws Exception {
+		Future<String> first = callers.submit(() -> flights.load("a", this::blockingLoad));
+		awaitLoads(1);
+		flights.forget("a");
+
+		assertEquals("a2", flights.load("a", key -> key + loads.incrementAndGet()));
+		assertEquals(0, flights.joined());
+		release.countDown();
+		assertEquals("a1", first.get(5, TimeUnit.SECONDS));
+	}
+
+	private String blockingLoad(String key) {
+		String value = key + loads.incrementAndGet();
+		try {
+			release.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return value;
+	}
+
+	private void awaitJoined(long joined) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (flights.joined() < joined) {
+			assertTrue(System.currentTimeMillis() < deadline, "callers never joined the flight");
+			Thread.sleep(1);
+		}
+	}
+
+	private void awaitLoads(int started) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (loads.get() < started) {
+			assertTrue(System.currentTimeMillis() < deadline, "load never started");
+			Thread.sleep(1);
+		}
+	}
+
+	private static Throwable causeOf(Future<String> result) throws Exception {
+		try {
+			result.get(5, TimeUnit.SECONDS);
+		} catch (ExecutionException e) {
+			return e.getCause();
+		}
+		fail("load did not fail");
+		return null;
+	}
+}
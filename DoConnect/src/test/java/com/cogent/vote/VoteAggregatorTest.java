@@ -0,0 +1,261 @@
+package com.cogent.vote;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class VoteAggregatorTest {
+	private static final long QUESTION_ID = 5L;
+
+	@TempDir
+	Path dir;
+
+	private final FakeVoteStore store = new FakeVoteStore();
+
+	private final List<VoteAggregator> aggregators = new ArrayList<>();
+
+	@AfterEach
+	void close() throws IOException {
+		store.failing = false;
+		for (VoteAggregator aggregator : aggregators) {
+			aggregator.close();
+		}
+	}
+
+	@Test
+	void repeatedVoteChangesNothing() throws IOException {
+		VoteAggregator aggregator = aggregator("none");
+
+		assertEquals(1, aggregator.submit(VoteTarget.QUESTION, QUESTION_ID, 7L, 1).getDelta());
+		assertEquals(0, aggregator.submit(VoteTarget.QUESTION, QUESTION_ID, 7L, 1).getDelta());
+		aggregator.flush();
+
+		assertEquals(1, store.tally(VoteTarget.QUESTION, QUESTION_ID));
+		assertEquals(0, aggregator.submit(VoteTarget.QUESTION, QUESTION_ID, 7L, 1).getDelta());
+	}
+
+	@Test
+	void flippedVoteMovesTallyByTwo() throws IOException {
+		store.votes.put(new VoteKey(VoteTarget.ANSWER, QUESTION_ID, 7L), 1);
+		VoteAggregator aggregator = aggregator("none");
+
+		assertEquals(-2, aggregator.submit(VoteTarget.ANSWER, QUESTION_ID, 7L, -1).getDelta());
+		assertEquals(2, aggregator.submit(VoteTarget.ANSWER, QUESTION_ID, 7L, 1).getDelta());
+		assertEquals(-1, aggregator.submit(VoteTarget.ANSWER, QUESTION_ID, 7L, 0).getDelta());
+		aggregator.flush();
+
+		assertEquals(-1, store.tally(VoteTarget.ANSWER, QUESTION_ID));
+		assertTrue(store.votes.isEmpty());
+	}
+
+	@Test
+	void failedFlushKeepsPendingVotes() throws IOException {
+		VoteAggregator aggregator = aggregator("none");
+		aggregator.submit(VoteTarget.QUESTION, QUESTION_ID, 7L, 1);
+
+		store.failing = true;
+		aggregator.flush();
+		assertEquals(0, store.tally(VoteTarget.QUESTION, QUESTION_ID));
+		assertEquals(0, aggregator.submit(VoteTarget.QUESTION, QUESTION_ID, 7L, 1).getDelta());
+		aggregator.submit(VoteTarget.QUESTION, QUESTION_ID, 8L, -1);
+
+		store.failing = false;
+		aggregator.flush();
+		assertEquals(0, store.tally(VoteTarget.QUESTION, QUESTION_ID));
+		assertEquals(Integer.valueOf(1), store.votes.get(new VoteKey(VoteTarget.QUESTION, QUESTION_ID, 7L)));
+		assertEquals(Integer.valueOf(-1), store.votes.get(new VoteKey(VoteTarget.QUESTION, QUESTION_ID, 8L)));
+	}
+
+	@Test
+	void votesDuringFlushesAreNotLost() throws Exception {
+		VoteAggregator aggregator = aggregator("none");
+		int voters = 8;
+		int[] last = new int[voters];
+		AtomicBoolean voting = new AtomicBoolean(true);
+		Thread flusher = new Thread(() -> {
+			while (voting.get()) {
+				aggregator.flush();
+			}
+		});
+		flusher.start();
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < voters; i++) {
+			long voterId = i;
+			Thread thread = new Thread(() -> {
+				Random random = new Random(voterId);
+				for (int n = 0; n < 500; n++) {
+					int vote = random.nextInt(3) - 1;
+					aggregator.submit(VoteTarget.QUESTION, QUESTION_ID, voterId, vote);
+					last[(int) voterId] = vote;
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		voting.set(false);
+		flusher.join();
+		aggregator.flush();
+
+		int expected = 0;
+		for (int i = 0; i < voters; i++) {
+			Integer stored = store.votes.get(new VoteKey(VoteTarget.QUESTION, QUESTION_ID, (long) i));
+			assertEquals(last[i], stored == null ? 0 : stored.intValue(), "vote of voter " + i);
+			expected += last[i];
+		}
+		assertEquals(expected, store.tally(VoteTarget.QUESTION, QUESTION_ID));
+	}
+
+	@Test
+	void settledReadWaitsForFlushedBatch() throws Exception {
+		VoteAggregator aggregator = aggregator("none");
+		aggregator.submit(VoteTarget.QUESTION, QUESTION_ID, 7L, 1);
+		store.applying = new CountDownLatch(1);
+		store.release = new CountDownLatch(1);
+		Thread flusher = new Thread(aggregator::flush);
+		AtomicInteger read = new AtomicInteger(-1);
+		Thread reader = new Thread(() -> read.set(settledTally(aggregator)));
+		flusher.start();
+		try {
+			assertTrue(store.applying.await(10, TimeUnit.SECONDS));
+			reader.start();
+			reader.join(200);
+			assertTrue(reader.isAlive(), "settled read overlapped a flush and saw " + read.get());
+		} finally {
+			store.release.countDown();
+			flusher.join();
+			reader.join();
+		}
+
+		assertEquals(1, read.get());
+		assertEquals(1, settledTally(aggregator));
+	}
+
+	@Test
+	void collectingReadStartsNewEpoch() throws IOException {
+		VoteAggregator aggregator = aggregator("none");
+		VoteChange before = aggregator.submit(VoteTarget.QUESTION, QUESTION_ID, 7L, 1);
+		Map<Long, Integer> unflushed = new HashMap<>();
+		aggregator.readSettled(VoteTarget.QUESTION, () -> null, unflushed);
+		VoteChange after = aggregator.submit(VoteTarget.QUESTION, QUESTION_ID, 8L, 1);
+
+		assertEquals(Integer.valueOf(1), unflushed.get(QUESTION_ID));
+		assertEquals(before.getEpoch() + 1, aggregator.epoch());
+		assertEquals(aggregator.epoch(), after.getEpoch());
+	}
+
+	@Test
+	void replayIgnoresTornLine() throws IOException {
+		VoteJournal journal = new VoteJournal(dir);
+		journal.append(new VoteKey(VoteTarget.QUESTION, QUESTION_ID, 7L), 1);
+		journal.append(new VoteKey(VoteTarget.QUESTION, QUESTION_ID, 8L), -1);
+		journal.close();
+		Path segment = dir.resolve("votes-000000000000.log");
+		Files.write(segment, "QUESTION\t5\t1".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+		VoteAggregator aggregator = aggregator("none");
+		aggregator.flush();
+
+		assertEquals(0, store.tally(VoteTarget.QUESTION, QUESTION_ID));
+		assertEquals(2, store.votes.size());
+		assertTrue(Files.notExists(segment));
+	}
+
+	@Test
+	void recreatedSchemaDropsJournal() throws IOException {
+		VoteJournal journal = new VoteJournal(dir);
+		journal.append(new VoteKey(VoteTarget.QUESTION, QUESTION_ID, 7L), 1);
+		journal.close();
+		Path segment = dir.resolve("votes-000000000000.log");
+
+		VoteAggregator aggregator = aggregator("create-drop");
+		aggregator.flush();
+
+		assertTrue(store.votes.isEmpty());
+		assertTrue(Files.notExists(segment));
+	}
+
+	private int settledTally(VoteAggregator aggregator) {
+		return aggregator.readSettled(() -> store.tally(VoteTarget.QUESTION, QUESTION_ID)
+				+ aggregator.unflushedTally(VoteTarget.QUESTION, QUESTION_ID));
+	}
+
+	private VoteAggregator aggregator(String ddlAuto) throws IOException {
+		VoteAggregator aggregator = new VoteAggregator();
+		ReflectionTestUtils.setField(aggregator, "voteStore", store);
+		ReflectionTestUtils.setField(aggregator, "journalDir", dir.toString());
+		ReflectionTestUtils.setField(aggregator, "writeBehind", true);
+		ReflectionTestUtils.setField(aggregator, "ddlAuto", ddlAuto);
+		aggregator.init();
+		aggregators.add(aggregator);
+		return aggregator;
+	}
+
+	/** Keeps votes and tallies in maps instead of the database */
+	private static class FakeVoteStore extends VoteStore {
+		private final Map<VoteKey, Integer> votes = new ConcurrentHashMap<>();
+
+		private final Map<EntityRef, Integer> tallies = new ConcurrentHashMap<>();
+
+		private volatile boolean failing;
+
+		/** When set, apply counts down applying and waits for release before writing */
+		private volatile CountDownLatch applying;
+
+		private volatile CountDownLatch release;
+
+		@Override
+		public int currentVote(VoteKey key) {
+			return votes.getOrDefault(key, 0);
+		}
+
+		@Override
+		public synchronized void apply(Map<VoteKey, Integer> batch, Map<EntityRef, Integer> deltas) {
+			if (failing) {
+				throw new IllegalStateException("database down");
+			}
+			if (release != null) {
+				applying.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			batch.forEach((key, vote) -> {
+				if (vote == 0) {
+					votes.remove(key);
+				} else {
+					votes.put(key, vote);
+				}
+			});
+			deltas.forEach((entity, delta) -> tallies.merge(entity, delta, Integer::sum));
+		}
+
+		private int tally(VoteTarget target, Long entityId) {
+			return tallies.getOrDefault(new EntityRef(target, entityId), 0);
+		}
+	}
+}
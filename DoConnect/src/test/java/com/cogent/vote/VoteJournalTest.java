@@ -0,0 +1,53 @@
+package com.cogent.vote;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class VoteJournalTest {
+	@TempDir
+	Path dir;
+
+	@Test
+	void appendedVotesReadBack() throws IOException {
+		VoteJournal journal = new VoteJournal(dir);
+		journal.append(new VoteKey(VoteTarget.QUESTION, 5L, 7L), 1);
+		journal.append(new VoteKey(VoteTarget.ANSWER, 6L, 8L), -1);
+		Path segment = journal.rotate();
+		journal.close();
+
+		Map<VoteKey, Integer> votes = read(journal, segment);
+
+		assertEquals(2, votes.size());
+		assertEquals(Integer.valueOf(1), votes.get(new VoteKey(VoteTarget.QUESTION, 5L, 7L)));
+		assertEquals(Integer.valueOf(-1), votes.get(new VoteKey(VoteTarget.ANSWER, 6L, 8L)));
+	}
+
+	@Test
+	void segmentWithoutHeaderIsNotRead() throws IOException {
+		Path segment = dir.resolve("votes-000000000000.log");
+		Files.write(segment, Arrays.asList(
+				"QUESTION\t5\t1\tbird%40user",
+				"ANSWER\t6\t-1\t42"), StandardCharsets.UTF_8);
+		VoteJournal journal = new VoteJournal(dir);
+		journal.close();
+
+		assertTrue(read(journal, segment).isEmpty());
+	}
+
+	private static Map<VoteKey, Integer> read(VoteJournal journal, Path segment) throws IOException {
+		Map<VoteKey, Integer> votes = new LinkedHashMap<>();
+		journal.read(segment, votes::put);
+		return votes;
+	}
+}